@@ -0,0 +1,192 @@
+package com.github.raybipse.components;
+
+import java.util.NoSuchElementException;
+
+import com.github.raybipse.internal.ErrorMessages;
+
+/**
+ * Reads the arguments of a command one at a time, splitting the input only as
+ * far as the arguments that are read.
+ *
+ * A command that only reads its first argument costs as much as that argument,
+ * however long the rest of the message is. Arguments are split by the same rules
+ * as {@link Arguments} and {@link Command#splitUserInput(String)}. A cursor
+ * returned by {@link CommandInput#getCursor()} skips the {@link Flag flags} of
+ * the command.
+ *
+ * @author RayBipse
+ */
+public final class ArgumentCursor {
+
+    private final CharSequence source;
+    private final int to;
+    private final FlagTable flags;
+    private final int[] token = new int[FlagTable.TOKEN_FIELDS];
+    private final int[] scratch;
+    private int position;
+    private int peekedPosition = -2;
+
+    /**
+     * @param input the input to be read
+     */
+    public ArgumentCursor(CharSequence input) {
+        this(ErrorMessages.requireNonNullParam(input, "input"), 0, input.length());
+    }
+
+    /**
+     * Reads the range of {@code input} from {@code from} to {@code to} without
+     * copying it.
+     *
+     * @param input the input to be read
+     * @param from  the index the range starts at, inclusive
+     * @param to    the index the range ends at, exclusive
+     */
+    public ArgumentCursor(CharSequence input, int from, int to) {
+        this(input, from, to, FlagTable.EMPTY);
+    }
+
+    /**
+     * @param input the input to be read
+     * @param from  the index the range starts at, inclusive
+     * @param to    the index the range ends at, exclusive
+     * @param flags the flags to be skipped
+     */
+    ArgumentCursor(CharSequence input, int from, int to, FlagTable flags) {
+        ErrorMessages.requireNonNullParam(input, "input");
+        if (from < 0 || to > input.length() || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") is out of bounds.");
+        }
+        this.source = input;
+        this.position = from;
+        this.to = to;
+        this.flags = flags;
+        this.scratch = flags.isEmpty() ? null : new int[FlagTable.TOKEN_FIELDS];
+    }
+
+    /**
+     * Scans the argument at the position of the cursor, once, skipping any flag
+     * before it.
+     *
+     * @return the index following the argument, or -1 if there is none
+     */
+    private int scan() {
+        if (peekedPosition == -2) {
+            peekedPosition = flags.nextPositional(source, position, to, token, scratch);
+        }
+        return peekedPosition;
+    }
+
+    /**
+     * @return true if there is an argument left
+     */
+    public boolean hasNext() {
+        return scan() != -1;
+    }
+
+    /**
+     * @return the next argument without moving the cursor, or null if there is
+     *         none
+     */
+    public CharSequence peek() {
+        return scan() == -1 ? null : value();
+    }
+
+    /**
+     * @return the next argument. Arguments without quotation marks are returned as
+     *         a view over the input, without copying it.
+     *
+     * @throws NoSuchElementException if there is no argument left
+     */
+    public CharSequence next() {
+        int next = scan();
+        if (next == -1) {
+            throw new NoSuchElementException("There is no argument left.");
+        }
+        CharSequence value = value();
+        position = next;
+        peekedPosition = -2;
+        return value;
+    }
+
+    /**
+     * @return the next argument as a string
+     *
+     * @throws NoSuchElementException if there is no argument left
+     */
+    public String nextString() {
+        return next().toString();
+    }
+
+    /**
+     * Skips the next argument without creating it.
+     *
+     * @return true if an argument was skipped, false if there was none
+     */
+    public boolean skip() {
+        int next = scan();
+        if (next == -1) {
+            return false;
+        }
+        position = next;
+        peekedPosition = -2;
+        return true;
+    }
+
+    /**
+     * Returns the unread input as it was written, which is useful for a final
+     * argument such as a reason. Quotation marks are not taken out of it.
+     *
+     * @return a view over the unread input, without the whitespace before it
+     */
+    public CharSequence rest() {
+        int from = position;
+        while (from < to && Character.isWhitespace(source.charAt(from))) {
+            from++;
+        }
+        return new Arguments.View(source, from, to);
+    }
+
+    /**
+     * @return the index in the input where the argument last moved past starts
+     */
+    int tokenStart() {
+        return token[0];
+    }
+
+    /**
+     * @return the index in the input where the argument last moved past ends,
+     *         exclusive
+     */
+    int tokenEnd() {
+        return token[1];
+    }
+
+    /**
+     * @return true if the argument last moved past has quotation marks to be taken
+     *         out
+     */
+    boolean isTokenQuoted() {
+        return (token[2] & ArgumentLexer.QUOTED) != 0;
+    }
+
+    /**
+     * @return the input the cursor reads
+     */
+    CharSequence getSource() {
+        return source;
+    }
+
+    /**
+     * @return the index in the input of the first character that has not been read
+     */
+    public int position() {
+        return position;
+    }
+
+    private CharSequence value() {
+        if ((token[2] & ArgumentLexer.QUOTED) != 0) {
+            return ParseScratch.unquote(source, token[0], token[1]);
+        }
+        return new Arguments.View(source, token[0], token[1]);
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.raybipse.components;
+
+/**
+ * Describes an argument that could not be read by an {@link ArgumentReader}.
+ *
+ * @author RayBipse
+ */
+public final class ArgumentError {
+
+    /**
+     * The kind of value an argument was expected to be.
+     */
+    public enum Type {
+        INTEGER("a whole number"), LONG("a whole number"), SNOWFLAKE("an ID"), BOOLEAN("yes or no"),
+        DURATION("a duration such as 1h30m"), ENUM("one of the listed values"), USER("a mention of a user"),
+        ROLE("a mention of a role"), CHANNEL("a mention of a channel"), TEXT("text"),
+        FLAG("a flag without a value");
+
+        private final String description;
+
+        Type(String description) {
+            this.description = description;
+        }
+
+        /**
+         * @return a description of the kind of value, to be shown to users
+         */
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * The reason an argument could not be read.
+     */
+    public enum Reason {
+        /** There was no argument left. */
+        MISSING,
+        /** The argument is not written as the expected kind of value. */
+        INVALID,
+        /** The argument is written as the expected kind of value, but is too large or small. */
+        OUT_OF_RANGE
+    }
+
+    private final int index;
+    private final String name;
+    private final Type type;
+    private final Reason reason;
+    private final String value;
+
+    /**
+     * @param index  the index of the argument
+     * @param name   the name of the argument, as written in the syntax of the
+     *               command
+     * @param type   the kind of value the argument was expected to be
+     * @param reason the reason the argument could not be read
+     * @param value  the argument as written by the user, or null if it is missing
+     */
+    public ArgumentError(int index, String name, Type type, Reason reason, String value) {
+        this.index = index;
+        this.name = name;
+        this.type = type;
+        this.reason = reason;
+        this.value = value;
+    }
+
+    /**
+     * @return the index of the argument
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the name of the argument, as written in the syntax of the command
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the kind of value the argument was expected to be
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the reason the argument could not be read
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * @return the argument as written by the user, or null if it is missing
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @return a description of the error, to be shown to users
+     */
+    public String getMessage() {
+        switch (reason) {
+            case MISSING:
+                return "\"" + name + "\" is missing.";
+            case OUT_OF_RANGE:
+                return "\"" + name + "\" is out of range: " + value;
+            default:
+                return "\"" + name + "\" must be " + type.getDescription() + ": " + value;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.raybipse.components;
+
+/**
+ * A state machine that splits the input of a command into arguments in a single
+ * pass.
+ *
+ * <ul>
+ * <li>Arguments are separated by whitespace. Consecutive whitespace separates
+ * only once, and whitespace around the input is ignored.</li>
+ * <li>A double or single quotation mark starts a quoted section, which ends at
+ * the next quotation mark of the same kind or at the end of the input. Inside a
+ * quoted section, whitespace and the other kind of quotation mark are treated
+ * normally. The quotation marks are removed, and {@code ""} is an empty
+ * argument.</li>
+ * <li>A backslash followed by a quotation mark is treated as the quotation mark,
+ * and the backslash is removed.</li>
+ * <li>Two backslashes followed by a quotation mark are treated as one
+ * backslash, and the quotation mark keeps its meaning.</li>
+ * <li>Any other backslash is treated normally.</li>
+ * </ul>
+ *
+ * @author RayBipse
+ */
+final class ArgumentLexer {
+
+    /** The argument contains quotation marks or backslashes to be taken out. */
+    static final int QUOTED = 1;
+
+    private ArgumentLexer() {
+    }
+
+    /**
+     * @param c the character to be checked
+     *
+     * @return true if parameter c is ' or "
+     */
+    static boolean isCharQuotationMark(char c) {
+        return c == '\"' || c == '\'';
+    }
+
+    /**
+     * Scans the next argument of {@code input}, starting at {@code from}.
+     *
+     * @param input the input
+     * @param from  the index to start scanning at
+     * @param to    the index the input ends at, exclusive
+     * @param out   receives the start index, the end index (exclusive) and the
+     *              flags of the argument, including its quotation marks
+     * @return the index following the argument, or -1 if there is no argument left
+     */
+    static int next(CharSequence input, int from, int to, int[] out) {
+        int i = from;
+        while (i < to && Character.isWhitespace(input.charAt(i))) {
+            i++;
+        }
+        if (i == to) {
+            return -1;
+        }
+
+        int start = i;
+        int flags = 0;
+        char quote = 0;
+        while (i < to) {
+            char c = input.charAt(i);
+            if (c == '\\' && i + 1 < to) {
+                char next = input.charAt(i + 1);
+                if (isCharQuotationMark(next)) {
+                    flags = QUOTED;
+                    i += 2;
+                    continue;
+                }
+                if (next == '\\' && i + 2 < to && isCharQuotationMark(input.charAt(i + 2))) {
+                    flags = QUOTED;
+                    i += 2;
+                    continue;
+                }
+            } else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (isCharQuotationMark(c)) {
+                flags = QUOTED;
+                quote = c;
+            } else if (Character.isWhitespace(c)) {
+                break;
+            }
+            i++;
+        }
+
+        out[0] = start;
+        out[1] = i;
+        out[2] = flags;
+        return i;
+    }
+
+    /**
+     * Takes the quotation marks and the backslashes escaping them out of an
+     * argument scanned by {@link #next(CharSequence, int, int, int[])}.
+     *
+     * @param input the input
+     * @param start the index the argument starts at
+     * @param end   the index the argument ends at, exclusive
+     * @param out   receives the value of the argument
+     * @return {@code out}
+     */
+    static StringBuilder unquote(CharSequence input, int start, int end, StringBuilder out) {
+        char quote = 0;
+        int i = start;
+        while (i < end) {
+            char c = input.charAt(i);
+            if (c == '\\' && i + 1 < end) {
+                char next = input.charAt(i + 1);
+                if (isCharQuotationMark(next)) {
+                    out.append(next);
+                    i += 2;
+                    continue;
+                }
+                if (next == '\\' && i + 2 < end && isCharQuotationMark(input.charAt(i + 2))) {
+                    out.append('\\');
+                    i += 2;
+                    continue;
+                }
+                out.append(c);
+            } else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    out.append(c);
+                }
+            } else if (isCharQuotationMark(c)) {
+                quote = c;
+            } else {
+                out.append(c);
+            }
+            i++;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,575 @@
+package com.github.raybipse.components;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.raybipse.internal.ErrorMessages;
+
+import net.dv8tion.jda.api.entities.ChannelType;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.TextChannel;
+import net.dv8tion.jda.api.entities.User;
+
+/**
+ * Reads typed arguments from an {@link ArgumentCursor}.
+ *
+ * Values are parsed straight from the characters of the input, without creating
+ * strings or throwing exceptions. When an argument cannot be read, the method
+ * returns a default value and records an {@link ArgumentError}, which can be
+ * shown with {@link Command#getEmbedInvalidParameterError(List)}.
+ *
+ * <pre>
+ * <code>
+ * ArgumentReader reader = input.getReader();
+ * long user = reader.nextUser("user");
+ * long duration = reader.nextDuration("duration");
+ * if (reader.hasErrors()) {
+ *   event.getChannel().sendMessage(getEmbedInvalidParameterError(reader.getErrors()).build()).queue();
+ *   return;
+ * }
+ * </code>
+ * </pre>
+ *
+ * A reader returned by {@link CommandInput#getReader()} can also resolve
+ * mentions into the users, members, roles and channels that JDA already
+ * resolved for the message, with {@link #nextMentionedMember(String)} and the
+ * methods like it.
+ *
+ * @author RayBipse
+ */
+public final class ArgumentReader {
+
+    private static final ClassValue<Enum<?>[]> ENUM_CONSTANTS = new ClassValue<>() {
+        @Override
+        protected Enum<?>[] computeValue(Class<?> type) {
+            return (Enum<?>[]) type.getEnumConstants();
+        }
+    };
+
+    private final ArgumentCursor cursor;
+    private final Message message;
+    private int index;
+    private List<ArgumentError> errors;
+
+    private StringBuilder unquoted;
+    private CharSequence chars;
+    private int start;
+    private int end;
+    private long value;
+
+    /**
+     * @param cursor the cursor to read arguments from
+     */
+    public ArgumentReader(ArgumentCursor cursor) {
+        this(cursor, null);
+    }
+
+    /**
+     * @param cursor  the cursor to read arguments from
+     * @param message the message the arguments were written in, whose mentions
+     *                are used to resolve arguments. Can be null.
+     */
+    public ArgumentReader(ArgumentCursor cursor, Message message) {
+        this.cursor = ErrorMessages.requireNonNullParam(cursor, "cursor");
+        this.message = message;
+    }
+
+    /**
+     * @return the cursor arguments are read from
+     */
+    public ArgumentCursor getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @return true if an argument could not be read
+     */
+    public boolean hasErrors() {
+        return errors != null;
+    }
+
+    /**
+     * @return the errors of the arguments that could not be read, in order
+     */
+    public List<ArgumentError> getErrors() {
+        return errors == null ? Collections.emptyList() : Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * @return true if there is an argument left
+     */
+    public boolean hasNext() {
+        return cursor.hasNext();
+    }
+
+    /**
+     * @param name the name of the argument, used if it cannot be read
+     * @return the next argument as a string, or null if there is none
+     */
+    public String nextString(String name) {
+        if (!cursor.hasNext()) {
+            fail(name, ArgumentError.Type.TEXT, ArgumentError.Reason.MISSING, false);
+            return null;
+        }
+        index++;
+        return cursor.nextString();
+    }
+
+    /**
+     * @param name the name of the argument, used if it cannot be read
+     * @return the next argument as an int, or 0 if it cannot be read
+     */
+    public int nextInt(String name) {
+        if (!load(name, ArgumentError.Type.INTEGER)) {
+            return 0;
+        }
+        ArgumentError.Reason reason = parseLong(start, end);
+        if (reason != null) {
+            return (int) fail(name, ArgumentError.Type.INTEGER, reason, true);
+        }
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return (int) fail(name, ArgumentError.Type.INTEGER, ArgumentError.Reason.OUT_OF_RANGE, true);
+        }
+        return (int) value;
+    }
+
+    /**
+     * @param name the name of the argument, used if it cannot be read
+     * @return the next argument as a long, or 0 if it cannot be read
+     */
+    public long nextLong(String name) {
+        if (!load(name, ArgumentError.Type.LONG)) {
+            return 0;
+        }
+        ArgumentError.Reason reason = parseLong(start, end);
+        if (reason != null) {
+            return fail(name, ArgumentError.Type.LONG, reason, true);
+        }
+        return value;
+    }
+
+    /**
+     * @param name the name of the argument, used if it cannot be read
+     * @return the next argument as a snowflake ID, or 0 if it cannot be read
+     */
+    public long nextSnowflake(String name) {
+        if (!load(name, ArgumentError.Type.SNOWFLAKE)) {
+            return 0;
+        }
+        if (!parseSnowflake(start, end)) {
+            return fail(name, ArgumentError.Type.SNOWFLAKE, ArgumentError.Reason.INVALID, true);
+        }
+        return value;
+    }
+
+    /**
+     * Reads true, yes, on, 1 and false, no, off, 0, ignoring case.
+     *
+     * @param name the name of the argument, used if it cannot be read
+     * @return the next argument as a boolean, or false if it cannot be read
+     */
+    public boolean nextBoolean(String name) {
+        if (!load(name, ArgumentError.Type.BOOLEAN)) {
+            return false;
+        }
+        if (matches("true") || matches("yes") || matches("on") || matches("1")) {
+            return true;
+        }
+        if (!(matches("false") || matches("no") || matches("off") || matches("0"))) {
+            fail(name, ArgumentError.Type.BOOLEAN, ArgumentError.Reason.INVALID, true);
+        }
+        return false;
+    }
+
+    /**
+     * Reads a duration written as numbers followed by units, e.g. "1h30m". The
+     * units are w, d, h, m, s and ms. A number without a unit is in seconds.
+     *
+     * @param name the name of the argument, used if it cannot be read
+     * @return the next argument as a duration in milliseconds, or 0 if it cannot be
+     *         read
+     */
+    public long nextDuration(String name) {
+        if (!load(name, ArgumentError.Type.DURATION)) {
+            return 0;
+        }
+        ArgumentError.Reason reason = parseDuration(start, end);
+        if (reason != null) {
+            return fail(name, ArgumentError.Type.DURATION, reason, true);
+        }
+        return value;
+    }
+
+    /**
+     * @param <E>  the type of the enum
+     * @param name the name of the argument, used if it cannot be read
+     * @param type the class of the enum
+     * @return the constant whose name is the next argument, ignoring case and
+     *         treating '-' as '_', or null if it cannot be read
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Enum<E>> E nextEnum(String name, Class<E> type) {
+        ErrorMessages.requireNonNullParam(type, "type");
+        if (!load(name, ArgumentError.Type.ENUM)) {
+            return null;
+        }
+        for (Enum<?> constant : ENUM_CONSTANTS.get(type)) {
+            if (matchesConstant(constant.name())) {
+                return (E) constant;
+            }
+        }
+        fail(name, ArgumentError.Type.ENUM, ArgumentError.Reason.INVALID, true);
+        return null;
+    }
+
+    /**
+     * Reads a mention of a user, written as "&lt;@id&gt;" or "&lt;@!id&gt;", or a
+     * user ID.
+     *
+     * @param name the name of the argument, used if it cannot be read
+     * @return the ID of the mentioned user, or 0 if it cannot be read
+     */
+    public long nextUser(String name) {
+        return nextMention(name, ArgumentError.Type.USER, "<@!", "<@");
+    }
+
+    /**
+     * Reads a mention of a role, written as "&lt;@&amp;id&gt;", or a role ID.
+     *
+     * @param name the name of the argument, used if it cannot be read
+     * @return the ID of the mentioned role, or 0 if it cannot be read
+     */
+    public long nextRole(String name) {
+        return nextMention(name, ArgumentError.Type.ROLE, "<@&", null);
+    }
+
+    /**
+     * Reads a mention of a channel, written as "&lt;#id&gt;", or a channel ID.
+     *
+     * @param name the name of the argument, used if it cannot be read
+     * @return the ID of the mentioned channel, or 0 if it cannot be read
+     */
+    public long nextChannel(String name) {
+        return nextMention(name, ArgumentError.Type.CHANNEL, "<#", null);
+    }
+
+    /**
+     * Reads a mention of a user and finds the user among the users mentioned in
+     * the message, without looking it up in the cache of JDA.
+     *
+     * @param name the name of the argument, used if it cannot be read
+     * @return the mentioned user, or null if it cannot be read or the user is not
+     *         mentioned in the message
+     */
+    public User nextMentionedUser(String name) {
+        long id = nextUser(name);
+        if (id == 0) {
+            return null;
+        }
+        if (message != null) {
+            for (User user : message.getMentionedUsers()) {
+                if (user.getIdLong() == id) {
+                    return user;
+                }
+            }
+        }
+        return notMentioned(name, ArgumentError.Type.USER);
+    }
+
+    /**
+     * Reads a mention of a member and finds the member among the members
+     * mentioned in the message, without looking it up in the cache of JDA.
+     *
+     * @param name the name of the argument, used if it cannot be read
+     * @return the mentioned member, or null if it cannot be read or the member is
+     *         not mentioned in the message
+     */
+    public Member nextMentionedMember(String name) {
+        long id = nextUser(name);
+        if (id == 0) {
+            return null;
+        }
+        if (message != null && message.isFromType(ChannelType.TEXT)) {
+            for (Member member : message.getMentionedMembers()) {
+                if (member.getUser().getIdLong() == id) {
+                    return member;
+                }
+            }
+        }
+        return notMentioned(name, ArgumentError.Type.USER);
+    }
+
+    /**
+     * Reads a mention of a role and finds the role among the roles mentioned in
+     * the message, without looking it up in the cache of JDA.
+     *
+     * @param name the name of the argument, used if it cannot be read
+     * @return the mentioned role, or null if it cannot be read or the role is not
+     *         mentioned in the message
+     */
+    public Role nextMentionedRole(String name) {
+        long id = nextRole(name);
+        if (id == 0) {
+            return null;
+        }
+        if (message != null) {
+            for (Role role : message.getMentionedRoles()) {
+                if (role.getIdLong() == id) {
+                    return role;
+                }
+            }
+        }
+        return notMentioned(name, ArgumentError.Type.ROLE);
+    }
+
+    /**
+     * Reads a mention of a channel and finds the channel among the channels
+     * mentioned in the message, without looking it up in the cache of JDA.
+     *
+     * @param name the name of the argument, used if it cannot be read
+     * @return the mentioned channel, or null if it cannot be read or the channel
+     *         is not mentioned in the message
+     */
+    public TextChannel nextMentionedChannel(String name) {
+        long id = nextChannel(name);
+        if (id == 0) {
+            return null;
+        }
+        if (message != null) {
+            for (TextChannel channel : message.getMentionedChannels()) {
+                if (channel.getIdLong() == id) {
+                    return channel;
+                }
+            }
+        }
+        return notMentioned(name, ArgumentError.Type.CHANNEL);
+    }
+
+    /**
+     * Records that the argument just read is not mentioned in the message.
+     *
+     * @return null
+     */
+    private <T> T notMentioned(String name, ArgumentError.Type type) {
+        fail(name, type, ArgumentError.Reason.INVALID, true);
+        return null;
+    }
+
+    private long nextMention(String name, ArgumentError.Type type, String opening, String otherOpening) {
+        if (!load(name, type)) {
+            return 0;
+        }
+        if (parseSnowflake(start, end)) {
+            return value;
+        }
+        String matched = null;
+        if (startsWith(opening)) {
+            matched = opening;
+        } else if (otherOpening != null && startsWith(otherOpening)) {
+            matched = otherOpening;
+        }
+        if (matched == null || chars.charAt(end - 1) != '>' || !parseSnowflake(start + matched.length(), end - 1)) {
+            return fail(name, type, ArgumentError.Reason.INVALID, true);
+        }
+        return value;
+    }
+
+    /**
+     * Moves the cursor past the next argument and keeps its characters in
+     * {@link #chars} from {@link #start} to {@link #end}.
+     *
+     * @return false if there was no argument left
+     */
+    private boolean load(String name, ArgumentError.Type type) {
+        if (!cursor.skip()) {
+            fail(name, type, ArgumentError.Reason.MISSING, false);
+            return false;
+        }
+        index++;
+        if (cursor.isTokenQuoted()) {
+            // Only quoted arguments are copied, to take their quotation marks out
+            if (unquoted == null) {
+                unquoted = new StringBuilder();
+            }
+            unquoted.setLength(0);
+            chars = ArgumentLexer.unquote(cursor.getSource(), cursor.tokenStart(), cursor.tokenEnd(), unquoted);
+            start = 0;
+            end = chars.length();
+        } else {
+            chars = cursor.getSource();
+            start = cursor.tokenStart();
+            end = cursor.tokenEnd();
+        }
+        return true;
+    }
+
+    private long fail(String name, ArgumentError.Type type, ArgumentError.Reason reason, boolean present) {
+        if (errors == null) {
+            errors = new ArrayList<>();
+        }
+        String written = present ? chars.subSequence(start, end).toString() : null;
+        errors.add(new ArgumentError(present ? index - 1 : index, name, type, reason, written));
+        return 0;
+    }
+
+    /**
+     * Parses a signed decimal number into {@link #value}.
+     *
+     * @return null if the number was parsed, or the reason it could not be
+     */
+    private ArgumentError.Reason parseLong(int from, int to) {
+        boolean negative = false;
+        int i = from;
+        if (i < to && (chars.charAt(i) == '-' || chars.charAt(i) == '+')) {
+            negative = chars.charAt(i) == '-';
+            i++;
+        }
+        if (i == to) {
+            return ArgumentError.Reason.INVALID;
+        }
+        // Accumulates negatively, since Long.MIN_VALUE has no positive counterpart
+        long result = 0;
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        boolean overflow = false;
+        for (; i < to; i++) {
+            int digit = chars.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return ArgumentError.Reason.INVALID;
+            }
+            if (result < (limit + digit) / 10) {
+                overflow = true;
+            } else {
+                result = result * 10 - digit;
+            }
+        }
+        if (overflow) {
+            return ArgumentError.Reason.OUT_OF_RANGE;
+        }
+        value = negative ? result : -result;
+        return null;
+    }
+
+    /**
+     * Parses an unsigned snowflake ID of up to 20 digits into {@link #value}.
+     *
+     * @return false if the range is not a snowflake ID
+     */
+    private boolean parseSnowflake(int from, int to) {
+        if (to <= from || to - from > 20) {
+            return false;
+        }
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            int digit = chars.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result > (Long.MAX_VALUE - digit) / 10) {
+                return false;
+            }
+            result = result * 10 + digit;
+        }
+        value = result;
+        return true;
+    }
+
+    /**
+     * Parses a duration into {@link #value}, in milliseconds.
+     *
+     * @return null if the duration was parsed, or the reason it could not be
+     */
+    private ArgumentError.Reason parseDuration(int from, int to) {
+        long total = 0;
+        int i = from;
+        while (i < to) {
+            long amount = 0;
+            int digitsStart = i;
+            while (i < to && chars.charAt(i) >= '0' && chars.charAt(i) <= '9') {
+                amount = amount * 10 + (chars.charAt(i) - '0');
+                if (amount > Integer.MAX_VALUE) {
+                    return ArgumentError.Reason.OUT_OF_RANGE;
+                }
+                i++;
+            }
+            if (i == digitsStart) {
+                return ArgumentError.Reason.INVALID;
+            }
+
+            long unit;
+            if (i == to) {
+                unit = digitsStart == from ? 1000L : -1;
+            } else {
+                char c = Character.toLowerCase(chars.charAt(i++));
+                if (c == 'm' && i < to && Character.toLowerCase(chars.charAt(i)) == 's') {
+                    unit = 1L;
+                    i++;
+                } else if (c == 'w') {
+                    unit = 604_800_000L;
+                } else if (c == 'd') {
+                    unit = 86_400_000L;
+                } else if (c == 'h') {
+                    unit = 3_600_000L;
+                } else if (c == 'm') {
+                    unit = 60_000L;
+                } else if (c == 's') {
+                    unit = 1000L;
+                } else {
+                    unit = -1;
+                }
+            }
+            if (unit == -1) {
+                return ArgumentError.Reason.INVALID;
+            }
+            if (amount > (Long.MAX_VALUE - total) / unit) {
+                return ArgumentError.Reason.OUT_OF_RANGE;
+            }
+            total += amount * unit;
+        }
+        value = total;
+        return null;
+    }
+
+    private boolean matches(String expected) {
+        int length = expected.length();
+        if (end - start != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toLowerCase(chars.charAt(start + i)) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchesConstant(String constant) {
+        int length = constant.length();
+        if (end - start != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(start + i);
+            char expected = constant.charAt(i);
+            if (c == '-') {
+                c = '_';
+            }
+            if (c != expected && Character.toUpperCase(c) != Character.toUpperCase(expected)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean startsWith(String opening) {
+        int length = opening.length();
+        if (end - start < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chars.charAt(start + i) != opening.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
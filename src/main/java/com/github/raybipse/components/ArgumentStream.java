@@ -0,0 +1,194 @@
+package com.github.raybipse.components;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.NoSuchElementException;
+
+import com.github.raybipse.internal.ErrorMessages;
+
+/**
+ * Reads arguments from a stream, such as a text file attached to a message,
+ * without reading the whole stream into memory.
+ *
+ * The stream is read into a buffer that holds at most one argument and what
+ * follows it, and the arguments are split by the same rules as
+ * {@link ArgumentCursor} and {@link Command#splitUserInput(String)}. The buffer
+ * grows up to the greatest length of an argument, so a stream of any length is
+ * read in bounded memory.
+ *
+ * <pre>
+ * <code>
+ * try (ArgumentStream arguments = new ArgumentStream(inputStream, StandardCharsets.UTF_8)) {
+ *   while (arguments.hasNext()) {
+ *     String argument = arguments.next();
+ *   }
+ * }
+ * </code>
+ * </pre>
+ *
+ * @author RayBipse
+ */
+public final class ArgumentStream implements Closeable {
+
+    /** The greatest length of an argument, unless another one is given. */
+    public static final int DEFAULT_MAX_ARGUMENT_LENGTH = 1 << 16;
+
+    private static final int INITIAL_CAPACITY = 8192;
+
+    private final Reader reader;
+    private final int maxArgumentLength;
+    private final int[] token = new int[3];
+    private final StringBuilder value = new StringBuilder();
+    private char[] buffer;
+    private CharBuffer view;
+    private int position;
+    private int limit;
+    private boolean ended;
+    private int peekedPosition = -2;
+
+    /**
+     * @param reader            the reader to read arguments from
+     * @param maxArgumentLength the greatest length of an argument
+     */
+    public ArgumentStream(Reader reader, int maxArgumentLength) {
+        this.reader = ErrorMessages.requireNonNullParam(reader, "reader");
+        if (maxArgumentLength <= 0) {
+            throw new IllegalArgumentException("\"maxArgumentLength\" must be positive.");
+        }
+        this.maxArgumentLength = maxArgumentLength;
+        this.buffer = new char[Math.min(INITIAL_CAPACITY, maxArgumentLength + 1)];
+        this.view = CharBuffer.wrap(buffer);
+    }
+
+    /**
+     * @param reader the reader to read arguments from
+     */
+    public ArgumentStream(Reader reader) {
+        this(reader, DEFAULT_MAX_ARGUMENT_LENGTH);
+    }
+
+    /**
+     * @param input   the stream to read arguments from
+     * @param charset the charset the stream is encoded in
+     */
+    public ArgumentStream(InputStream input, Charset charset) {
+        this(new InputStreamReader(ErrorMessages.requireNonNullParam(input, "input"),
+                ErrorMessages.requireNonNullParam(charset, "charset")));
+    }
+
+    /**
+     * Scans the argument at the position of the stream, once, reading more of the
+     * stream while the argument may continue past the buffer.
+     *
+     * @return the index in the buffer following the argument, or -1 if there is
+     *         none
+     *
+     * @throws IOException if the stream cannot be read, or the argument is longer
+     *                     than the greatest length of an argument
+     */
+    private int scan() throws IOException {
+        while (peekedPosition == -2) {
+            int next = ArgumentLexer.next(view, position, limit, token);
+            // An argument that reaches the end of the buffer may continue in the stream
+            if (ended || (next != -1 && next < limit)) {
+                peekedPosition = next;
+            } else {
+                fill(next == -1 ? limit : token[0]);
+            }
+        }
+        return peekedPosition;
+    }
+
+    /**
+     * Discards the buffer before {@code keep} and reads more of the stream after
+     * what is kept.
+     */
+    private void fill(int keep) throws IOException {
+        int kept = limit - keep;
+        if (kept > maxArgumentLength) {
+            throw new IOException("An argument is longer than " + maxArgumentLength + " characters.");
+        }
+        if (kept == buffer.length) {
+            char[] grown = new char[(int) Math.min((long) buffer.length * 2, maxArgumentLength + 1L)];
+            System.arraycopy(buffer, keep, grown, 0, kept);
+            buffer = grown;
+            view = CharBuffer.wrap(buffer);
+        } else if (keep != 0) {
+            System.arraycopy(buffer, keep, buffer, 0, kept);
+        }
+        position = 0;
+        limit = kept;
+
+        int read = reader.read(buffer, limit, buffer.length - limit);
+        if (read == -1) {
+            ended = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    /**
+     * @return true if there is an argument left
+     *
+     * @throws IOException if the stream cannot be read
+     */
+    public boolean hasNext() throws IOException {
+        return scan() != -1;
+    }
+
+    /**
+     * @return the next argument. The argument is copied out of the buffer, which
+     *         is reused.
+     *
+     * @throws IOException            if the stream cannot be read
+     * @throws NoSuchElementException if there is no argument left
+     */
+    public String next() throws IOException {
+        int next = scan();
+        if (next == -1) {
+            throw new NoSuchElementException("There is no argument left.");
+        }
+        String argument;
+        if ((token[2] & ArgumentLexer.QUOTED) != 0) {
+            value.setLength(0);
+            argument = ArgumentLexer.unquote(view, token[0], token[1], value).toString();
+        } else {
+            argument = new String(buffer, token[0], token[1] - token[0]);
+        }
+        position = next;
+        peekedPosition = -2;
+        return argument;
+    }
+
+    /**
+     * Skips the next argument without creating it.
+     *
+     * @return true if an argument was skipped, false if there was none
+     *
+     * @throws IOException if the stream cannot be read
+     */
+    public boolean skip() throws IOException {
+        int next = scan();
+        if (next == -1) {
+            return false;
+        }
+        position = next;
+        peekedPosition = -2;
+        return true;
+    }
+
+    /**
+     * Closes the stream arguments are read from.
+     *
+     * @throws IOException if the stream cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
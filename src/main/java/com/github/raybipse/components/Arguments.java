@@ -0,0 +1,223 @@
+package com.github.raybipse.components;
+
+import java.util.Arrays;
+
+import com.github.raybipse.internal.ErrorMessages;
+
+/**
+ * The arguments of a command, stored as offsets into the original input instead
+ * of copies of it.
+ *
+ * Each argument is a range of the input. {@link #get(int)} returns a view over
+ * the range, and a {@link String} is only created when
+ * {@link #getString(int)} or {@link #toArray()} is called, or when an argument
+ * contains quotation marks that have to be taken out.
+ *
+ * The input is split in a single pass by the rules described in
+ * {@link Command#splitUserInput(String)}.
+ *
+ * @author RayBipse
+ */
+public final class Arguments {
+
+    /** The number of entries that describe an argument: its start, end and flags. */
+    static final int FIELDS = 3;
+
+    private static final int[] NO_TOKENS = new int[0];
+
+    private final CharSequence source;
+    private final int[] tokens;
+    private final int size;
+
+    private Arguments(CharSequence source, int[] tokens, int size) {
+        this.source = source;
+        this.tokens = tokens;
+        this.size = size;
+    }
+
+    /**
+     * @param input the input to be split
+     * @return the arguments of {@code input}
+     */
+    public static Arguments tokenize(CharSequence input) {
+        ErrorMessages.requireNonNullParam(input, "input");
+        return tokenize(input, 0, input.length());
+    }
+
+    /**
+     * Splits the range of {@code input} from {@code from} to {@code to} without
+     * copying it.
+     *
+     * @param input the input to be split
+     * @param from  the index the range starts at, inclusive
+     * @param to    the index the range ends at, exclusive
+     * @return the arguments of the range
+     */
+    public static Arguments tokenize(CharSequence input, int from, int to) {
+        return tokenize(input, from, to, FlagTable.EMPTY);
+    }
+
+    /**
+     * Splits the range of {@code input} from {@code from} to {@code to} without
+     * copying it, leaving out the arguments that are flags or their values.
+     *
+     * @param input the input to be split
+     * @param from  the index the range starts at, inclusive
+     * @param to    the index the range ends at, exclusive
+     * @param flags the flags to be left out
+     * @return the positional arguments of the range
+     */
+    static Arguments tokenize(CharSequence input, int from, int to, FlagTable flags) {
+        ErrorMessages.requireNonNullParam(input, "input");
+        if (from < 0 || to > input.length() || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") is out of bounds.");
+        }
+
+        ParseScratch scratch = ParseScratch.get();
+        int[] token = scratch.token;
+        token[3] = 0;
+        // Arguments are staged in the buffer of the thread, so only the final array is allocated
+        int[] tokens = scratch.tokens;
+        int size = 0;
+        int i = flags.nextPositional(input, from, to, token, scratch.value);
+        while (i != -1) {
+            if (FIELDS * (size + 1) > tokens.length) {
+                tokens = Arrays.copyOf(tokens, tokens.length * 2);
+            }
+            System.arraycopy(token, 0, tokens, FIELDS * size, FIELDS);
+            size++;
+            i = flags.nextPositional(input, i, to, token, scratch.value);
+        }
+        return new Arguments(input, size == 0 ? NO_TOKENS : Arrays.copyOf(tokens, FIELDS * size), size);
+    }
+
+    /**
+     * @return the number of arguments
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if there is no argument
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index the index of the argument
+     * @return the index in the input where the argument starts, inclusive. This
+     *         includes any quotation mark around the argument.
+     */
+    public int start(int index) {
+        checkIndex(index);
+        return tokens[FIELDS * index];
+    }
+
+    /**
+     * @param index the index of the argument
+     * @return the index in the input where the argument ends, exclusive. This
+     *         includes any quotation mark around the argument.
+     */
+    public int end(int index) {
+        checkIndex(index);
+        return tokens[FIELDS * index + 1];
+    }
+
+    /**
+     * @return the input the arguments were split from
+     */
+    public CharSequence getSource() {
+        return source;
+    }
+
+    /**
+     * @param index the index of the argument
+     * @return the argument. Arguments without quotation marks are returned as a
+     *         view over the input, without copying it.
+     */
+    public CharSequence get(int index) {
+        checkIndex(index);
+        if ((tokens[FIELDS * index + 2] & ArgumentLexer.QUOTED) != 0) {
+            return unquote(tokens[FIELDS * index], tokens[FIELDS * index + 1]);
+        }
+        return new View(source, tokens[FIELDS * index], tokens[FIELDS * index + 1]);
+    }
+
+    /**
+     * @param index the index of the argument
+     * @return the argument as a string
+     */
+    public String getString(int index) {
+        checkIndex(index);
+        int start = tokens[FIELDS * index];
+        int end = tokens[FIELDS * index + 1];
+        if ((tokens[FIELDS * index + 2] & ArgumentLexer.QUOTED) != 0) {
+            return unquote(start, end);
+        }
+        return source.subSequence(start, end).toString();
+    }
+
+    /**
+     * @return every argument as a string
+     */
+    public String[] toArray() {
+        String[] array = new String[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = getString(i);
+        }
+        return array;
+    }
+
+    private String unquote(int start, int end) {
+        return ParseScratch.unquote(source, start, end);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for " + size + " arguments.");
+        }
+    }
+
+    /**
+     * A view over a range of the input.
+     */
+    static final class View implements CharSequence {
+        private final CharSequence source;
+        private final int start;
+        private final int end;
+
+        View(CharSequence source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException("Index " + index + " is out of bounds.");
+            }
+            return source.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            if (from < 0 || to > end - start || from > to) {
+                throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") is out of bounds.");
+            }
+            return new View(source, start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            return source.subSequence(start, end).toString();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.raybipse.components;
+
+/**
+ * Whether a user may invoke a {@link Command}, and the reason if they may not,
+ * as returned by {@link Command#authorize}.
+ *
+ * Every result is one of the constants of this class, so authorizing a message
+ * allocates nothing and a denial is signaled without throwing an exception.
+ *
+ * @author RayBipse
+ */
+public final class AuthorizationResult {
+
+    /**
+     * The reason a user may not invoke a command.
+     */
+    public enum Reason {
+        /** The message was not sent in a guild, so the roles of the user are unknown. */
+        NOT_A_MEMBER("Commands that check roles can only be invoked in a server."),
+        /** The member does not have every required role. */
+        MISSING_REQUIRED_ROLE("Member does not have every role required to invoke the command."),
+        /** The member has a blacklisted role. */
+        BLACKLISTED_ROLE("Member has a role blacklisted from invoking the command."),
+        /** The command denied the member for a reason of its own. */
+        DENIED("Member does not meet requirements to invoke the command.");
+
+        private final String message;
+
+        Reason(String message) {
+            this.message = message;
+        }
+
+        /**
+         * @return a description of the reason
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /** The user may invoke the command. */
+    public static final AuthorizationResult ALLOWED = new AuthorizationResult(null);
+    /** The user is not a member of a guild. */
+    public static final AuthorizationResult NOT_A_MEMBER = new AuthorizationResult(Reason.NOT_A_MEMBER);
+    /** The member does not have every required role. */
+    public static final AuthorizationResult MISSING_REQUIRED_ROLE = new AuthorizationResult(
+            Reason.MISSING_REQUIRED_ROLE);
+    /** The member has a blacklisted role. */
+    public static final AuthorizationResult BLACKLISTED_ROLE = new AuthorizationResult(Reason.BLACKLISTED_ROLE);
+    /** The command denied the member for a reason of its own. */
+    public static final AuthorizationResult DENIED = new AuthorizationResult(Reason.DENIED);
+
+    private final Reason reason;
+
+    private AuthorizationResult(Reason reason) {
+        this.reason = reason;
+    }
+
+    /**
+     * @return true if the user may invoke the command
+     */
+    public boolean isAllowed() {
+        return reason == null;
+    }
+
+    /**
+     * @return the reason the user may not invoke the command, or null if they may
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * @return a description of the result
+     */
+    public String getMessage() {
+        return reason == null ? "Member may invoke the command." : reason.getMessage();
+    }
+
+    @Override
+    public String toString() {
+        return reason == null ? "ALLOWED" : reason.name();
+    }
+}
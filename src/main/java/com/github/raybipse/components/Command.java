@@ -1,6 +1,5 @@
 package com.github.raybipse.components;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -9,8 +8,11 @@ import java.util.stream.Collectors;
 
 import com.github.raybipse.core.BotConfiguration;
 import com.github.raybipse.internal.ErrorMessages;
+import com.github.raybipse.internal.LongSets;
 
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
@@ -45,21 +47,47 @@ import net.dv8tion.jda.api.utils.MarkdownUtil;
  * This must be implemented in the command itself since abstract classes cannot
  * implement this behavior easily.
  * 
+ * Received messages are routed to the command by the {@link CommandDispatcher}.
+ * A command can also override other callbacks of {@link ListenerAdapter}, such
+ * as {@code onMessageReactionAdd}, and is then registered to JDA to receive
+ * them.
+ * 
  * @author RayBipse
  */
 public abstract class Command extends ListenerAdapter {
 
-    private Set<Role> requiredRoles = new HashSet<>();
-    private Set<Role> blacklistedRoles = new HashSet<>();
-    private Consumer<MessageReceivedEvent> onRolePermissionFail = (event) -> 
-            event.getChannel().sendMessage(getEmbedPermissionError(requiredRoles, blacklistedRoles).build()).queue();
+    /**
+     * The input of the message being routed on the current thread, so the methods
+     * used by commands written as their own listener honor the prefix the message
+     * was invoked with.
+     */
+    private static final ThreadLocal<CommandInput> routedInput = new ThreadLocal<>();
+
+    private volatile long[] requiredRoleIds = LongSets.EMPTY;
+    private volatile long[] blacklistedRoleIds = LongSets.EMPTY;
+    private volatile int roleRulesVersion;
+    private final SyntaxMatcher syntaxMatcher;
+    private final FlagTable flagTable;
+    private final boolean roleCheckOverridden;
+    private volatile Usage usage;
+    private Consumer<MessageReceivedEvent> onRolePermissionFail = (event) -> {
+        // Repeated denials are not answered, so they do not use up the rate limit of the channel
+        if (DenialThrottle.getInstance().tryReply(this, event.getAuthor().getIdLong(), event.getChannel().getIdLong()))
+            event.getChannel().sendMessage(getEmbedPermissionError(getRequiredRoles(), getBlacklistedRoles()).build()).queue();
+    };
 
     public Command() {
         ErrorMessages.requireNonNullReturn(getName(), "getName");
         ErrorMessages.requireNonNullReturn(getPrefix(), "getPrefix");
         ErrorMessages.requireNonNullReturn(getSyntax(), "getSyntax");
+        ErrorMessages.requireNonNullReturn(getAliases(), "getAliases");
+
+        ErrorMessages.requireNonNullReturn(getFlags(), "getFlags");
 
-        BotConfiguration.getJDA().addEventListener(this);
+        syntaxMatcher = SyntaxMatcher.compile(getSyntax());
+        flagTable = FlagTable.compile(getFlags());
+        roleCheckOverridden = overridesRoleCheck(getClass());
+        CommandDispatcher.getInstance().register(this);
     }
 
     /**
@@ -72,6 +100,39 @@ public abstract class Command extends ListenerAdapter {
      */
     public abstract String getPrefix();
 
+    /**
+     * Aliases invoke the command the same way its prefix does. Aliases must not
+     * collide with the prefix or aliases of another command in the same
+     * {@link CommandGroup}.
+     * 
+     * @return the alternative prefixes used to invoke the command. Return an empty
+     *         array if there is none. Do not return null.
+     */
+    public String[] getAliases() {
+        return new String[0];
+    }
+
+    /**
+     * Flags are named options, such as {@code --limit=50} or {@code -v}, that can
+     * be written anywhere after the prefix of the command. They are not counted
+     * as arguments of the {@link #getSyntax() syntax}.
+     * 
+     * @return the flags of the command. Return an empty array if there is none. Do
+     *         not return null.
+     * 
+     * @see Flag
+     */
+    public Flag[] getFlags() {
+        return new Flag[0];
+    }
+
+    /**
+     * @return the flags of the command, compiled when the command was constructed
+     */
+    FlagTable getFlagTable() {
+        return flagTable;
+    }
+
     /**
      * @return the description of the command. Return null if there is none.
      */
@@ -121,55 +182,222 @@ public abstract class Command extends ListenerAdapter {
             builder.addField("Command group", getParent().getName(), false);
         }
         builder.addField("Prefix", getPrefix(), false);
+        if (getAliases().length != 0) {
+            builder.addField("Alias" + (getAliases().length > 1 ? "es" : ""), String.join(", ", getAliases()), false);
+        }
 
-        if (getParent() != null)
-            builder.addField("Syntax", MarkdownUtil.monospace(
-                    BotConfiguration.getBotPrefix() + getParent().getPrefix() + " " + getPrefix() + " " + getSyntax()),
-                    false);
-        else
-            builder.addField("Syntax",
-                    MarkdownUtil.monospace(BotConfiguration.getBotPrefix() + getPrefix() + " " + getSyntax()), false);
-
-        if (getExamples() != null && getExamples().length != 0) {
-            StringBuilder exampleValue = new StringBuilder();
-            for (String example : getExamples()) {
-                if (getParent() != null) {
-                    exampleValue.append(BotConfiguration.getBotPrefix() + getParent().getPrefix() + " " + getPrefix()
-                            + " " + example + "\n");
-                } else {
-                    exampleValue.append(BotConfiguration.getBotPrefix() + getPrefix() + " " + example + "\n");
-                }
-            }
-            builder.addField("Example" + (getExamples().length > 1 ? "s" : ""),
-                    MarkdownUtil.monospace(exampleValue.toString()), false);
+        Usage usage = getUsage();
+        builder.addField("Syntax", usage.syntax, false);
+        if (usage.flags != null) {
+            builder.addField("Flags", usage.flags, false);
+        }
+        if (usage.examples != null) {
+            builder.addField(usage.examplesTitle, usage.examples, false);
         }
 
         return builder;
     }
 
     /**
+     * @return the rendered syntax, examples and help hint of the command, rebuilt
+     *         only when the invocation prefix of the command changes
+     */
+    private Usage getUsage() {
+        String invocationPrefix = getInvocationPrefix();
+        Usage usage = this.usage;
+        if (usage == null || !usage.invocationPrefix.equals(invocationPrefix)) {
+            usage = new Usage(this, invocationPrefix);
+            this.usage = usage;
+        }
+        return usage;
+    }
+
+    /**
+     * Called by the {@link CommandDispatcher} once a message has been routed to
+     * this command. By default, this forwards the event to
+     * {@link #onMessageReceived(MessageReceivedEvent)} so commands written as
+     * their own listener keep working. Override this method to skip checking the
+     * validity of the input again.
+     * 
+     * @param event the event of the message
+     * @param input the input of the message, without the invocation prefix
+     */
+    protected void onCommandReceived(MessageReceivedEvent event, CommandInput input) {
+        onMessageReceived(event);
+    }
+
+    /**
+     * Checks the syntax of a routed message and invokes the command with it. While
+     * the command runs, {@link #getInputValidity(String)},
+     * {@link #trimInputBeginning(String)} and the rendered syntax and examples use
+     * the prefix the message was invoked with, such as the prefix of its guild or
+     * a mention of the bot.
+     * 
+     * @param event the event of the message
+     * @param input the input of the message
+     */
+    void dispatch(MessageReceivedEvent event, CommandInput input) {
+        CommandInput outer = routedInput.get();
+        routedInput.set(input);
+        try {
+            if (checkSyntax(event, input)) {
+                onCommandReceived(event, input);
+            }
+        } finally {
+            routedInput.set(outer);
+        }
+    }
+
+    /**
+     * @param input the raw or displayed content of a message
+     * @return {@code input} without the invocation prefix if it is the content of
+     *         the message being routed to the command, or null otherwise
+     */
+    private String trimRoutedInput(String input) {
+        CommandInput routed = routedInput.get();
+        return routed != null && routed.getCommand() == this ? routed.trim(input) : null;
+    }
+
+    /**
+     * @param invocationPrefix an invocation prefix that starts with
+     *                         {@code botPrefix}
+     * @param botPrefix        the bot prefix {@code invocationPrefix} was built with
+     * @return {@code invocationPrefix} starting with the bot prefix of the message
+     *         being routed, if there is one
+     */
+    static String withRoutedBotPrefix(String invocationPrefix, String botPrefix) {
+        CommandInput routed = routedInput.get();
+        if (routed == null) {
+            return invocationPrefix;
+        }
+        String routedBotPrefix = routed.getBotPrefix();
+        if (routedBotPrefix.equals(botPrefix)) {
+            return invocationPrefix;
+        }
+        return routedBotPrefix + invocationPrefix.substring(botPrefix.length());
+    }
+
+    /**
+     * The number of arguments is checked against {@link #getSyntax()} before the
+     * {@link CommandDispatcher} invokes the command, and a message with missing
+     * arguments is answered with {@link #getEmbedMissingArguments()} instead.
+     * Override this method and return false if the command checks its arguments
+     * itself.
+     * 
+     * @return true if the syntax of the command is enforced
+     */
+    protected boolean isSyntaxEnforced() {
+        return true;
+    }
+
+    /**
+     * When the syntax is enforced, a message with more arguments than
+     * {@link #getSyntax()} accepts is answered with
+     * {@link #getEmbedTooManyArguments()} instead of invoking the command. This
+     * is off by default, since a command may read the rest of its input as its
+     * last argument, such as the reason of {@code <user> <reason>}. Override this
+     * method and return true to reject extra arguments.
+     * 
+     * @return true if extra arguments are rejected
+     */
+    protected boolean isArgumentLimitEnforced() {
+        return false;
+    }
+
+    /**
+     * Replies to the message if its arguments do not match the syntax of the
+     * command.
+     * 
+     * @param event the event of the message
+     * @param input the input of the message
+     * @return true if the command may be invoked with {@code input}
+     */
+    boolean checkSyntax(MessageReceivedEvent event, CommandInput input) {
+        if (!isSyntaxEnforced()) {
+            return true;
+        }
+        String rawContent = input.getRawContent();
+        switch (syntaxMatcher.match(rawContent, input.getOffset(), rawContent.length(), flagTable,
+                isArgumentLimitEnforced())) {
+            case SyntaxMatcher.TOO_FEW:
+                event.getChannel().sendMessage(getEmbedMissingArguments().build()).queue();
+                return false;
+            case SyntaxMatcher.TOO_MANY:
+                event.getChannel().sendMessage(getEmbedTooManyArguments().build()).queue();
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * @param event      the event of the message
+     * @param rawContent the raw content of the message
+     * @return the input of the message, or null if {@code rawContent} does not
+     *         invoke the command
+     */
+    CommandInput createInput(MessageReceivedEvent event, String rawContent) {
+        int invocationLength = getInvocationLength(rawContent);
+        if (invocationLength == -1) {
+            return null;
+        }
+        return new CommandInput(this, event, rawContent, BotConfiguration.getBotPrefix().length(), false,
+                invocationLength);
+    }
+
+    /**
+     * @return the string a message must start with to invoke the command, which is
+     *         the bot prefix, the prefixes of every {@link CommandGroup} from the
+     *         outermost to the parent (if there is one) and the command prefix.
+     *         While a message is routed, the bot prefix is the one of the message.
+     */
+    protected String getInvocationPrefix() {
+        CommandRegistry registry = CommandDispatcher.getInstance().getRegistry();
+        String prefix = registry.getInvocationPrefix(this);
+        if (prefix == null) { // The command is not registered yet
+            String botPrefix = BotConfiguration.getBotPrefix();
+            return withRoutedBotPrefix(CommandRegistry.buildInvocationPrefix(botPrefix, this), botPrefix);
+        }
+        return withRoutedBotPrefix(prefix, registry.getBotPrefix());
+    }
+
+    /**
+     * @param input the input to be checked
+     * @return the length of the invocation prefix or alias that {@code input}
+     *         starts with, or -1 if {@code input} does not invoke the command
+     */
+    private int getInvocationLength(String input) {
+        CommandRegistry registry = CommandDispatcher.getInstance().getRegistry();
+        if (registry.getInvocationPrefix(this) != null) {
+            String botPrefix = registry.getBotPrefix();
+            if (!input.startsWith(botPrefix)) {
+                return -1;
+            }
+            CommandTrie.Node match = registry.getTrie().find(input, botPrefix.length());
+            return match != null && match.getCommand() == this ? botPrefix.length() + match.getDepth() : -1;
+        }
+
+        // The command is not registered yet
+        String prefix = CommandRegistry.buildInvocationPrefix(BotConfiguration.getBotPrefix(), this);
+        int prefixLength = prefix.length();
+        if (input.startsWith(prefix) && (input.length() == prefixLength || input.charAt(prefixLength) == ' ')) {
+            return prefixLength;
+        }
+        return -1;
+    }
+
+    /**
+     * The content of a message routed by the {@link CommandDispatcher} is always
+     * valid while the command runs, whether it was invoked with the prefix of its
+     * guild or a mention of the bot.
+     * 
      * @param input the input to be checked
      * 
      * @return true if message invokes the command
      */
     protected boolean getInputValidity(String input) {
         ErrorMessages.requireNonNullParam(input, "input");
-        CommandGroup parent = getParent();
-        int inputLength = input.length();
-        String prefix;
-        
-        if (parent == null) {
-            prefix = BotConfiguration.getBotPrefix() + getPrefix();
-        } else {
-            prefix = BotConfiguration.getBotPrefix() + parent.getPrefix() + " " + getPrefix();
-        }
-        if (inputLength < prefix.length()) {
-            return false;
-        } else if (inputLength == prefix.length()) {
-            return input.equals(prefix);
-        } else {
-            return input.startsWith(prefix + " ");
-        }
+        return trimRoutedInput(input) != null || getInvocationLength(input) != -1;
     }
 
     /**
@@ -181,155 +409,261 @@ public abstract class Command extends ListenerAdapter {
      */
     protected String trimInputBeginning(String input) {
         ErrorMessages.requireNonNullParam(input, "input");
-        CommandGroup parent = getParent();
-        input = input.substring(BotConfiguration.getBotPrefix().length());
-
-        if (parent != null) {
-            input = input.substring(parent.getPrefix().length() + 1); // plus one for the space separating the prefixes
+        String routed = trimRoutedInput(input);
+        if (routed != null) {
+            return routed;
+        }
+        int prefixLength = getInvocationLength(input);
+        if (prefixLength == -1) {
+            prefixLength = getInvocationPrefix().length();
         }
 
         // To trim the extra space before the argument
         // If there is no argument just return an empty string
-        if (input.length() == getPrefix().length()) {
-            input = "";
-        } else {
-            input = input.substring(getPrefix().length() + 1);
+        if (input.length() == prefixLength) {
+            return "";
         }
-        return input;
-    }
-
-    /**
-     * @param c the character to be checked
-     * 
-     * @return true if parameter c is ' or "
-     */
-    private static boolean isCharQuotationMark(char c) {
-        return c == '\"' || c == '\'';
+        return input.substring(prefixLength + 1);
     }
 
     /**
      * Splits a string into an array of arguments to be used via a space. Any spaces
      * inside a double or single quotation mark will not be split, and the quotation
-     * mark will be removed. Quotation marks will be treated normally if there is a
-     * backslash behind it, and the backslash will be removed. Backslashs behind
-     * quotes will be treated normally if there is a backslash behind it.
+     * mark will be removed. A quotation mark only ends a quote started by the same
+     * kind of quotation mark, and {@code ""} is an empty argument. Quotation marks
+     * will be treated normally if there is a backslash behind it, and the
+     * backslash will be removed. Backslashs behind quotes will be treated normally
+     * if there is a backslash behind it, and the quotation mark keeps its meaning.
+     * Consecutive spaces separate arguments only once.
      * 
      * <pre>
      * <code>
      * splitUserInput("ab cde \"fgh ijk\""); // returns three items: [ab, cde, fgh ijk]
      * splitUserInput("\\\"a b\\\""); // returns two items: ["a, b"]
+     * splitUserInput("\\\\\"a b\""); // returns one item: [\a b]
      * </code>
      * </pre>
      * 
+     * The input is split in a single pass. Use
+     * {@link Arguments#tokenize(CharSequence)} to split the input without copying
+     * every argument.
+     * 
      * @param input must be already trimed with {@link #trimInputBeginning(String)}
      * @return an array of separated arguments
      */
     protected static String[] splitUserInput(String input) {
         ErrorMessages.requireNonNullParam(input, "input");
-        input = input.trim();
-        ArrayList<String> output = new ArrayList<>();
-        boolean inQuote = false;
-
-        int beginIndex = 0;
-        char[] charArray = input.toCharArray();
-        for (int i = 0; i < charArray.length; i++) {
-            char c = charArray[i];
-            if (isCharQuotationMark(c) && (i == 0 || charArray[i - 1] != '\\')) {
-                inQuote = !inQuote;
-            }
-
-            if ((Character.isWhitespace(c) && !inQuote) || i == charArray.length - 1) {
-                output.add(input.substring(beginIndex, i + 1).trim());
-                beginIndex = i + 1;
-            }
-        }
-
-        return takeOutBackslashAndQuote(output).toArray(new String[output.size()]);
+        return Arguments.tokenize(input).toArray();
     }
 
     /**
-     * Removes backslashes that is behind a quotation mark. Removes quotation marks
-     * that does not have a blackslash behind it.
+     * Calling this method would mean users must have the roles supplied to this
+     * method to invoke the command.
      * 
-     * @param input the input to be evaluated
-     * @return the {@code input} without the specified blackslashs and quotes
+     * @param roles the roles to require
      */
-    private static ArrayList<String> takeOutBackslashAndQuote(ArrayList<String> input) {
-        ErrorMessages.requireNonNullParam(input, "input");
-        for (int i = 0; i < input.size(); i++) {
-            char[] charArr = input.get(i).toCharArray();
-            StringBuilder str = new StringBuilder();
-            for (int k = 0; k < charArr.length; k++) {
-                if (!((k != charArr.length - 1 && ((isCharQuotationMark(charArr[k + 1]) && charArr[k] == '\\')))
-                        || (isCharQuotationMark(charArr[k]) && (k == 0 || charArr[k - 1] != '\\')))) {
-                    str.append(charArr[k]);
-                }
-            }
-            input.set(i, str.toString());
-        }
-
-        return input;
+    public void requireRoles(Set<Role> roles) {
+        ErrorMessages.requireNonNullParam(roles, "roles");
+        requireRoleIds(toIds(roles));
     }
 
     /**
      * Calling this method would mean users must have the roles supplied to this
-     * method to invoke the command.
+     * method to invoke the command. Roles are kept as IDs, so they remain valid
+     * when JDA reloads its cache.
      * 
-     * @param roles the roles to require
+     * @param roleIds the IDs of the roles to require
      */
-    public void requireRoles(Set<Role> roles) {
-        requiredRoles.addAll(roles);
+    public synchronized void requireRoleIds(long... roleIds) {
+        requiredRoleIds = LongSets.union(requiredRoleIds, roleIds);
+        roleRulesVersion++;
     }
 
     /**
-     * @return whitelisted roles
+     * @return the whitelisted roles that can be found in the cache of JDA
      */
     public Set<Role> getRequiredRoles() {
-        return requiredRoles;
+        return toRoles(requiredRoleIds);
+    }
+
+    /**
+     * @return the IDs of the whitelisted roles, in ascending order
+     */
+    public long[] getRequiredRoleIds() {
+        return requiredRoleIds.clone();
     }
 
     /**
      * @param roles the roles to blacklist
      */
     public void blacklistRoles(Set<Role> roles) {
-        blacklistedRoles.addAll(roles);
+        ErrorMessages.requireNonNullParam(roles, "roles");
+        blacklistRoleIds(toIds(roles));
     }
 
     /**
-     * @return blacklisted roles
+     * Roles are kept as IDs, so they remain valid when JDA reloads its cache.
+     * 
+     * @param roleIds the IDs of the roles to blacklist
+     */
+    public synchronized void blacklistRoleIds(long... roleIds) {
+        blacklistedRoleIds = LongSets.union(blacklistedRoleIds, roleIds);
+        roleRulesVersion++;
+    }
+
+    /**
+     * @return the blacklisted roles that can be found in the cache of JDA
      */
     public Set<Role> getBlacklistedRoles() {
-        return blacklistedRoles;
+        return toRoles(blacklistedRoleIds);
     }
 
     /**
+     * @return the IDs of the blacklisted roles, in ascending order
+     */
+    public long[] getBlacklistedRoleIds() {
+        return blacklistedRoleIds.clone();
+    }
+
+    private static long[] toIds(Set<Role> roles) {
+        long[] ids = new long[roles.size()];
+        int i = 0;
+        for (Role role : roles) {
+            ids[i++] = role.getIdLong();
+        }
+        return ids;
+    }
+
+    private static Set<Role> toRoles(long[] ids) {
+        Set<Role> roles = new HashSet<>();
+        JDA jda = BotConfiguration.getJDA();
+        for (long id : ids) {
+            Role role = jda.getRoleById(id);
+            if (role != null) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * The decision is kept by the {@link PermissionCache} until the roles of the
+     * member or of the command change, so a member who invokes the command again
+     * is not checked again. If this method is overridden,
+     * {@link #authorize(MessageReceivedEvent)} decides by calling it, and denies
+     * authors who are not members of a guild, such as in private messages.
      * 
      * @param member the user to be checked on
      * @return true if {@code member} contains all required roles and does not
      *         contain any blacklisted roles
      */
     protected boolean checkUserRolePermission(Member member) {
-        List<Role> userRoles = member.getRoles();
-        for (Role role : getBlacklistedRoles()) {
-            if (userRoles.contains(role)) {
-                return false;
+        return checkRoles(member).isAllowed();
+    }
+
+    private AuthorizationResult checkRoles(Member member) {
+        if (requiredRoleIds.length == 0 && blacklistedRoleIds.length == 0) {
+            return AuthorizationResult.ALLOWED;
+        }
+        return PermissionCache.getInstance().check(this, member);
+    }
+
+    private static boolean overridesRoleCheck(Class<?> type) {
+        for (Class<?> c = type; c != Command.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("checkUserRolePermission", Member.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Not declared by this class
             }
         }
-        return userRoles.containsAll(getRequiredRoles());
+        return false;
+    }
+
+    /**
+     * Decides whether the author of a message may invoke the command, without
+     * throwing an exception. The {@link CommandDispatcher} calls this method
+     * before invoking the command, and runs the returned consumer of
+     * {@link #getOnRolePermissionFail()} instead if the author is denied.
+     * 
+     * @param event the event of the message
+     * @return {@link AuthorizationResult#ALLOWED}, or the reason the author may
+     *         not invoke the command
+     */
+    protected AuthorizationResult authorize(MessageReceivedEvent event) {
+        Member member = event.getMember();
+        if (member == null) {
+            // Roles can only be checked in a guild, and an overridden check is only ever given a member
+            return !roleCheckOverridden && requiredRoleIds.length == 0 && blacklistedRoleIds.length == 0
+                    ? AuthorizationResult.ALLOWED
+                    : AuthorizationResult.NOT_A_MEMBER;
+        }
+        AuthorizationResult result = checkRoles(member);
+        if (!roleCheckOverridden) {
+            return result;
+        }
+        // An overridden check decides, and the roles only give the reason it denies a member
+        if (checkUserRolePermission(member)) {
+            return AuthorizationResult.ALLOWED;
+        }
+        return result.isAllowed() ? AuthorizationResult.DENIED : result;
+    }
+
+    /**
+     * @return the version of the roles of the command, which changes whenever a
+     *         role is required or blacklisted
+     */
+    int getRoleRulesVersion() {
+        return roleRulesVersion;
+    }
+
+    /**
+     * The roles of the command are compiled into bitsets for each guild, so the
+     * check takes a few word-wise operations however many roles the guild and
+     * the member have.
+     * 
+     * @param member the user to be checked on
+     * @return {@link AuthorizationResult#ALLOWED} if {@code member} contains all
+     *         required roles and does not contain any blacklisted roles, or the
+     *         reason the member is denied
+     */
+    AuthorizationResult evaluateRolePermission(Member member) {
+        Guild guild = member.getGuild();
+        RoleIndex index = RoleIndex.of(guild);
+        long[] memberRoles = new long[index.words()];
+        if (!index.fill(member.getRoles(), memberRoles)) { // The member has a role created since the index was built
+            index = RoleIndex.rebuild(guild);
+            memberRoles = new long[index.words()];
+            index.fill(member.getRoles(), memberRoles);
+        }
+        return index.getRules(this).evaluate(memberRoles);
+    }
+
+    /**
+     * @param index the current index of the roles of a guild
+     * @return the current roles of the command compiled for {@code index}
+     */
+    synchronized RoleRules compileRoleRules(RoleIndex index) {
+        return RoleRules.compile(index, roleRulesVersion, requiredRoleIds, blacklistedRoleIds);
     }
 
     /**
      * Runs the returned consumer of {@link #getOnRolePermissionFail()} and throws
-     * an exception if the user does not met expected permissions.
+     * an exception if the user does not met expected permissions. Commands routed
+     * by the {@link CommandDispatcher} are already authorized before they are
+     * invoked, so this method is only needed by commands that listen to messages
+     * themselves. Use {@link #authorize(MessageReceivedEvent)} to check without
+     * throwing an exception.
      * 
      * @param event the event of the message
      * 
      * @throws PermissionException if the user does not met expected permissions
      */
     protected void enforceUserRolePermission(MessageReceivedEvent event) {
-        if (!checkUserRolePermission(event.getMember())) {
+        AuthorizationResult result = authorize(event);
+        if (!result.isAllowed()) {
             getOnRolePermissionFail().accept(event);
-            throw new PermissionException("Member does not meet requirements to invoke the command.");
+            throw new PermissionException(result.getMessage());
         }
     }
 
@@ -406,21 +740,37 @@ public abstract class Command extends ListenerAdapter {
         ErrorMessages.requireNonNullParam(errorName, "errorName");
         EmbedBuilder builder = new EmbedBuilder().setTitle(errorName).setColor(BotConfiguration.getErrorColor());
 
-        if (getParent() != null)
-            builder.addField("Syntax", MarkdownUtil.monospace(
-                    BotConfiguration.getBotPrefix() + getParent().getPrefix() + " " + getPrefix() + " " + getSyntax()),
-                    false);
-        else
-            builder.addField("Syntax",
-                    MarkdownUtil.monospace(BotConfiguration.getBotPrefix() + getPrefix() + " " + getSyntax()), false);
+        Usage usage = getUsage();
+        builder.addField("Syntax", usage.syntax, false);
+        if (usage.helpHint != null && getEmbedInfo() != null) {
+            builder.setDescription(usage.helpHint);
+        }
+
+        return builder;
+    }
 
-        if (getParent() != null && getEmbedInfo() != null) {
-            builder.setDescription("Run "
-                    + MarkdownUtil.monospace(
-                            BotConfiguration.getBotPrefix() + getParent().getPrefix() + " help " + getPrefix())
-                    + " to see a better description of the command.");
+    /**
+     * @param errors the errors recorded by an {@link ArgumentReader}
+     * 
+     * @return an {@link net.dv8tion.jda.api.EmbedBuilder EmbedBuilder} that alerts
+     *         the user of the arguments that could not be read. The title is the
+     *         one of {@link #getEmbedMissingArguments()} if every argument is
+     *         missing, and the one of {@link #getEmbedInvalidParameterTypes()}
+     *         otherwise.
+     */
+    protected EmbedBuilder getEmbedInvalidParameterError(List<ArgumentError> errors) {
+        ErrorMessages.requireNonNullParam(errors, "errors");
+        boolean allMissing = true;
+        StringBuilder problems = new StringBuilder();
+        for (ArgumentError error : errors) {
+            allMissing &= error.getReason() == ArgumentError.Reason.MISSING;
+            problems.append(error.getMessage()).append('\n');
         }
 
+        EmbedBuilder builder = allMissing ? getEmbedMissingArguments() : getEmbedInvalidParameterTypes();
+        if (problems.length() != 0) {
+            builder.addField("Problem" + (errors.size() > 1 ? "s" : ""), problems.toString(), false);
+        }
         return builder;
     }
 
@@ -434,6 +784,17 @@ public abstract class Command extends ListenerAdapter {
         return getEmbedInvalidParameterError("Missing Argument(s) Error");
     }
 
+    /**
+     * @return an {@link net.dv8tion.jda.api.EmbedBuilder EmbedBuilder} that alerts
+     *         the user that input have more arguments than the syntax accepts.
+     *         This is the equivalent of the return value of
+     *         {@link #getEmbedInvalidParameterError(String)} with "Too Many
+     *         Arguments Error" as the errorName parameter
+     */
+    protected EmbedBuilder getEmbedTooManyArguments() {
+        return getEmbedInvalidParameterError("Too Many Arguments Error");
+    }
+
     /**
      * @return an {@link net.dv8tion.jda.api.EmbedBuilder EmbedBuilder} that alerts
      *         the user that input have invalid parameter types. This is the equivalent of the return value of
@@ -443,4 +804,72 @@ public abstract class Command extends ListenerAdapter {
     protected EmbedBuilder getEmbedInvalidParameterTypes() {
         return getEmbedInvalidParameterError("Invalid Parameter Type(s)");
     }
-}
\ No newline at end of file
+
+    /**
+     * The strings shown by {@link #getEmbedInfo()} and
+     * {@link #getEmbedInvalidParameterError(String)}, rendered once for an
+     * invocation prefix.
+     */
+    private static final class Usage {
+        private final String invocationPrefix;
+        private final String syntax;
+        private final String examplesTitle;
+        private final String examples;
+        private final String helpHint;
+        private final String flags;
+
+        private Usage(Command command, String invocationPrefix) {
+            this.invocationPrefix = invocationPrefix;
+            syntax = MarkdownUtil.monospace(invocationPrefix + " " + command.getSyntax());
+
+            String[] examples = command.getExamples();
+            if (examples != null && examples.length != 0) {
+                StringBuilder exampleValue = new StringBuilder();
+                for (String example : examples) {
+                    exampleValue.append(invocationPrefix).append(' ').append(example).append('\n');
+                }
+                this.examplesTitle = "Example" + (examples.length > 1 ? "s" : "");
+                this.examples = MarkdownUtil.monospace(exampleValue.toString());
+            } else {
+                this.examplesTitle = null;
+                this.examples = null;
+            }
+
+            FlagTable flagTable = command.getFlagTable();
+            if (!flagTable.isEmpty()) {
+                StringBuilder flagValue = new StringBuilder();
+                for (int i = 0; i < flagTable.size(); i++) {
+                    Flag flag = flagTable.get(i);
+                    flagValue.append(MarkdownUtil.monospace(flag.toString()));
+                    if (flag.getShortName() != 0) {
+                        flagValue.append(", ").append(MarkdownUtil.monospace("-" + flag.getShortName()));
+                    }
+                    if (flag.getDescription() != null) {
+                        flagValue.append(": ").append(flag.getDescription());
+                    }
+                    flagValue.append('\n');
+                }
+                this.flags = flagValue.toString();
+            } else {
+                this.flags = null;
+            }
+
+            CommandGroup parent = command.getParent();
+            if (parent != null) {
+                CommandRegistry registry = CommandDispatcher.getInstance().getRegistry();
+                String groupPrefix = registry.getInvocationPrefix(parent);
+                if (groupPrefix == null) {
+                    String botPrefix = BotConfiguration.getBotPrefix();
+                    groupPrefix = withRoutedBotPrefix(CommandRegistry.buildInvocationPrefix(botPrefix, parent),
+                            botPrefix);
+                } else {
+                    groupPrefix = withRoutedBotPrefix(groupPrefix, registry.getBotPrefix());
+                }
+                helpHint = "Run " + MarkdownUtil.monospace(groupPrefix + " help " + command.getPrefix())
+                        + " to see a better description of the command.";
+            } else {
+                helpHint = null;
+            }
+        }
+    }
+}
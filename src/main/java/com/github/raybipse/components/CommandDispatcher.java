@@ -0,0 +1,325 @@
+package com.github.raybipse.components;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.raybipse.core.BotConfiguration;
+import com.github.raybipse.internal.ErrorMessages;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.ChannelType;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.utils.MarkdownUtil;
+
+/**
+ * A single listener that routes each received message to at most one
+ * {@link Command}.
+ *
+ * The dispatcher keeps the {@link CommandRegistry} of every command. The
+ * registry is built the first time it is read after a command is registered,
+ * rather than while the command is constructed, so the parent of a command may
+ * be a command group that is constructed later. When
+ * {@link BotConfiguration#isCommandDispatcherEnabled()} is true, the dispatcher
+ * registers itself to JDA once, when the first command is registered, instead
+ * of every command registering its own listener. A command that overrides a
+ * callback of {@link ListenerAdapter} other than
+ * {@link ListenerAdapter#onMessageReceived(MessageReceivedEvent)}, such as
+ * {@code onMessageReactionAdd}, is still registered to JDA, and receives every
+ * event other than {@link MessageReceivedEvent}.
+ *
+ * @author RayBipse
+ */
+public class CommandDispatcher extends ListenerAdapter {
+
+    private static final CommandDispatcher instance = new CommandDispatcher();
+    private static final int MAX_SUGGESTIONS = 3;
+
+    private final Set<Command> commands = new LinkedHashSet<>();
+    private final Map<Command, EventListener> forwarders = new HashMap<>();
+    private volatile CommandRegistry registry;
+    private boolean attached = false;
+    private boolean permissionCacheAttached = false;
+
+    private final LongAdder acceptedMessages = new LongAdder();
+    private final LongAdder rejectedMessages = new LongAdder();
+
+    private CommandDispatcher() {
+    }
+
+    /**
+     * @return the instance of the command dispatcher
+     */
+    public static CommandDispatcher getInstance() {
+        return instance;
+    }
+
+    /**
+     * Adds {@code command} to the registry. The registry is rebuilt the next time
+     * it is read, so neither the parent of {@code command} nor its prefixes are
+     * read yet. If the command dispatcher is enabled, the dispatcher registers
+     * itself to JDA the first time this is called, and {@code command} is only
+     * registered to JDA if it listens to events other than received messages.
+     * Otherwise, {@code command} is registered to JDA as its own listener. The
+     * {@link PermissionCache} is
+     * registered to JDA the first time this is called either way.
+     *
+     * @param command the command to be registered
+     */
+    public synchronized void register(Command command) {
+        ErrorMessages.requireNonNullParam(command, "command");
+        if (!commands.add(command)) {
+            return;
+        }
+        if (!permissionCacheAttached) {
+            BotConfiguration.getJDA().addEventListener(PermissionCache.getInstance());
+            permissionCacheAttached = true;
+        }
+        if (BotConfiguration.isCommandDispatcherEnabled()) {
+            if (!attached) {
+                BotConfiguration.getJDA().addEventListener(this);
+                attached = true;
+            }
+            if (listensToOtherEvents(command.getClass())) {
+                // Received messages are routed by the dispatcher, so they are not forwarded again
+                EventListener forwarder = (event) -> {
+                    if (!(event instanceof MessageReceivedEvent)) {
+                        command.onEvent(event);
+                    }
+                };
+                forwarders.put(command, forwarder);
+                BotConfiguration.getJDA().addEventListener(forwarder);
+            }
+        } else {
+            BotConfiguration.getJDA().addEventListener(command);
+        }
+        registry = null;
+    }
+
+    /**
+     * Removes {@code command} from the registry.
+     *
+     * @param command the command to be unregistered
+     */
+    public synchronized void unregister(Command command) {
+        ErrorMessages.requireNonNullParam(command, "command");
+        if (!commands.remove(command)) {
+            return;
+        }
+        EventListener forwarder = forwarders.remove(command);
+        if (forwarder != null) {
+            BotConfiguration.getJDA().removeEventListener(forwarder);
+        } else if (!BotConfiguration.isCommandDispatcherEnabled()) {
+            BotConfiguration.getJDA().removeEventListener(command);
+        }
+        registry = null;
+    }
+
+    /**
+     * @param type the class of a command
+     * @return true if {@code type} overrides a callback of {@link ListenerAdapter}
+     *         other than {@link ListenerAdapter#onMessageReceived(MessageReceivedEvent)}
+     */
+    static boolean listensToOtherEvents(Class<?> type) {
+        for (Class<?> c = type; c != Command.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                Class<?>[] parameters = method.getParameterTypes();
+                if (method.getName().startsWith("on") && !method.getName().equals("onMessageReceived")
+                        && parameters.length == 1 && GenericEvent.class.isAssignableFrom(parameters[0])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rebuilds the registry with the current bot prefix the next time it is read.
+     * This is called by {@link BotConfiguration#setBotPrefix(String)}.
+     */
+    public synchronized void refreshBotPrefix() {
+        CommandRegistry registry = this.registry;
+        if (registry != null && !registry.getBotPrefix().equals(BotConfiguration.getBotPrefix())) {
+            this.registry = null;
+        }
+    }
+
+    /**
+     * Builds the registry if a command was registered or unregistered since it was
+     * last read. The parents, prefixes and aliases of every command are read again
+     * when the registry is built. A command whose invocations collide with a
+     * command registered before it is left out of the registry, so the other
+     * commands are still routed.
+     *
+     * @return the current snapshot of the registered commands
+     */
+    public CommandRegistry getRegistry() {
+        CommandRegistry registry = this.registry;
+        return registry != null ? registry : buildRegistry();
+    }
+
+    /**
+     * Call this method once every command is constructed to detect colliding
+     * prefixes before the first message.
+     * 
+     * @throws IllegalArgumentException the first reason a command was left out of
+     *                                  the registry, if the prefixes or aliases of
+     *                                  two commands resolve to the same invocation,
+     *                                  or if a command group is its own ancestor
+     */
+    public void checkRegistry() {
+        List<IllegalArgumentException> errors = getRegistry().getErrors();
+        if (!errors.isEmpty()) {
+            throw errors.get(0);
+        }
+    }
+
+    private synchronized CommandRegistry buildRegistry() {
+        if (registry == null) {
+            registry = new CommandRegistry(BotConfiguration.getBotPrefix(), new ArrayList<>(commands));
+        }
+        return registry;
+    }
+
+    /**
+     * @return the number of messages whose first character matched the prefix of
+     *         their guild and were routed
+     */
+    public long getAcceptedMessageCount() {
+        return acceptedMessages.sum();
+    }
+
+    /**
+     * @return the number of messages that were rejected by looking at their first
+     *         character, without being routed
+     */
+    public long getRejectedMessageCount() {
+        return rejectedMessages.sum();
+    }
+
+    /**
+     * A cheap check that looks only at the first character of the raw content of a
+     * message, before any per-command work is done.
+     *
+     * @param rawContent the raw content of a message
+     * @param prefix     the prefix used to invoke the bot where the message was sent
+     * @return false if {@code rawContent} cannot invoke any command
+     */
+    private static boolean mayInvoke(String rawContent, String prefix) {
+        if (rawContent.isEmpty()) {
+            return false;
+        }
+        char first = rawContent.charAt(0);
+        return prefix.isEmpty() || first == prefix.charAt(0)
+                || (first == '<' && BotConfiguration.isMentionPrefixEnabled());
+    }
+
+    /**
+     * Matches the "&lt;@id&gt;" and "&lt;@!id&gt;" forms of a mention of the bot at
+     * the beginning of {@code rawContent}, without allocating.
+     *
+     * @param rawContent the raw content of a message
+     * @param selfId     the ID of the bot
+     * @return the index following the mention and the whitespace after it, or -1
+     *         if {@code rawContent} does not start with a mention of the bot
+     */
+    private static int matchMention(String rawContent, long selfId) {
+        int length = rawContent.length();
+        if (length < 4 || rawContent.charAt(0) != '<' || rawContent.charAt(1) != '@') {
+            return -1;
+        }
+        int i = rawContent.charAt(2) == '!' ? 3 : 2;
+        int digitsStart = i;
+        long id = 0;
+        // A snowflake has at most 20 digits
+        while (i < length && i - digitsStart < 20) {
+            char c = rawContent.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            id = id * 10 + (c - '0');
+            i++;
+        }
+        if (i == digitsStart || i == length || rawContent.charAt(i) != '>' || id != selfId) {
+            return -1;
+        }
+        i++;
+        while (i < length && Character.isWhitespace(rawContent.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Answers a message that invokes no command with the closest commands, if
+     * there are any.
+     */
+    private static void suggest(MessageReceivedEvent event, CommandRegistry registry, String input, String prefix) {
+        List<String> suggestions = registry.suggest(input, MAX_SUGGESTIONS);
+        if (suggestions.isEmpty())
+            return;
+
+        StringBuilder description = new StringBuilder("Command not found. Did you mean: ");
+        for (int i = 0; i < suggestions.size(); i++) {
+            if (i != 0) {
+                description.append(", ");
+            }
+            description.append(MarkdownUtil.monospace(prefix + suggestions.get(i)));
+        }
+        event.getChannel().sendMessage(new EmbedBuilder().setDescription(description.append('?'))
+                .setColor(BotConfiguration.getErrorColor()).build()).queue();
+    }
+
+    @Override
+    public void onMessageReceived(MessageReceivedEvent event) {
+        if (event.getAuthor().isBot())
+            return;
+
+        String prefix = event.isFromType(ChannelType.TEXT)
+                ? BotConfiguration.getBotPrefix(event.getGuild().getIdLong())
+                : BotConfiguration.getBotPrefix();
+        String rawContent = event.getMessage().getContentRaw();
+        if (!mayInvoke(rawContent, prefix)) {
+            rejectedMessages.increment();
+            return;
+        }
+        acceptedMessages.increment();
+
+        int prefixLength = -1;
+        boolean mentionPrefix = false;
+        if (rawContent.startsWith(prefix)) {
+            prefixLength = prefix.length();
+        } else if (BotConfiguration.isMentionPrefixEnabled()) {
+            prefixLength = matchMention(rawContent, event.getJDA().getSelfUser().getIdLong());
+            mentionPrefix = true;
+        }
+        if (prefixLength == -1)
+            return;
+
+        CommandRegistry registry = getRegistry();
+        CommandTrie.Node match = registry.getTrie().find(rawContent, prefixLength);
+        if (match == null) {
+            if (BotConfiguration.isCommandSuggestionsEnabled()) {
+                suggest(event, registry, rawContent.substring(prefixLength), prefix);
+            }
+            return;
+        }
+
+        Command command = match.getCommand();
+        if (!command.authorize(event).isAllowed()) {
+            command.getOnRolePermissionFail().accept(event);
+            return;
+        }
+        CommandInput input = new CommandInput(command, event, rawContent, prefixLength, mentionPrefix,
+                prefixLength + match.getDepth());
+        command.dispatch(event, input);
+    }
+}
@@ -1,10 +1,17 @@
 package com.github.raybipse.components;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 import com.github.raybipse.core.BotConfiguration;
 import com.github.raybipse.internal.ErrorMessages;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.utils.MarkdownUtil;
 
 /**
  * An entity that groups {@link Command} into a group. Children of the command
@@ -12,16 +19,67 @@ import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
  * before the command prefix.
  * 
  * A command group can sometimes be referred as the parent of the commands
- * returned in {@link #getChildren()}.
+ * returned in {@link #getChildren()}. Command groups can be nested by returning
+ * another command group in {@link #getParent()}.
  * 
  * @author RayBipse
  */
 public abstract class CommandGroup {
 
+    private final Command[] children;
+    private final Map<String, Command> childIndex;
+
     protected CommandGroup() {
         ErrorMessages.requireNonNullReturn(getName(), "getName");
         ErrorMessages.requireNonNullReturn(getPrefix(), "getPrefix");
-        ErrorMessages.requireNonNullReturn(getChildren(), "getChildren");
+        ErrorMessages.requireNonNullReturn(getAliases(), "getAliases");
+        children = ErrorMessages.requireNonNullReturn(getChildren(), "getChildren").clone();
+        childIndex = Collections.unmodifiableMap(buildChildIndex(children));
+    }
+
+    /**
+     * Maps the case-folded names, prefixes and aliases of {@code children} to the
+     * child they identify. Names take precedence over prefixes, prefixes over
+     * aliases, and earlier children take precedence over later ones.
+     * 
+     * @param children the children of the command group
+     * @return the index of the children
+     */
+    private static Map<String, Command> buildChildIndex(Command[] children) {
+        Map<String, Command> index = new HashMap<>();
+        for (Command child : children) {
+            index.putIfAbsent(foldCase(child.getName()), child);
+        }
+        for (Command child : children) {
+            index.putIfAbsent(foldCase(child.getPrefix()), child);
+        }
+        for (Command child : children) {
+            for (String alias : child.getAliases()) {
+                index.putIfAbsent(foldCase(alias), child);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @param key the name or prefix to be folded
+     * @return {@code key} in the case used by the index of children
+     */
+    static String foldCase(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds a child of the command group by its name, prefix or alias, ignoring
+     * case. The lookup uses an index built once when the command group is
+     * constructed.
+     * 
+     * @param key the name, prefix or alias of the child
+     * @return the child identified by {@code key}, or null if there is none
+     */
+    public Command findChild(String key) {
+        ErrorMessages.requireNonNullParam(key, "key");
+        return childIndex.get(foldCase(key));
     }
 
     /**
@@ -45,6 +103,29 @@ public abstract class CommandGroup {
      */
     public abstract String getPrefix();
 
+    /**
+     * A command group with a parent is a subgroup. Its children are invoked with
+     * the prefixes of every ancestor before their own, e.g. "[bot prefix][parent
+     * prefix] [command group prefix] [command prefix]".
+     * 
+     * @return the parent command group of the command group. Return null if there
+     *         is none.
+     */
+    public CommandGroup getParent() {
+        return null;
+    }
+
+    /**
+     * Aliases can be used in place of the command group's prefix to invoke its
+     * children.
+     * 
+     * @return the alternative prefixes of the command group. Return an empty array
+     *         if there is none. Do not return null.
+     */
+    public String[] getAliases() {
+        return new String[0];
+    }
+
     /**
      * A command that gives information about for the {@link CommandGroup} and its
      * children.
@@ -53,6 +134,8 @@ public abstract class CommandGroup {
      */
     public class Help extends Command {
 
+        private static final int MAX_SUGGESTIONS = 3;
+
         @Override
         public String getName() {
             return "Help";
@@ -85,46 +168,61 @@ public abstract class CommandGroup {
 
         @Override
         public void onMessageReceived(MessageReceivedEvent event) {
-            String messageContent = event.getMessage().getContentDisplay();
             if (event.getAuthor().isBot())
                 return;
-            if (!getInputValidity(messageContent))
+            CommandInput input = createInput(event, event.getMessage().getContentRaw());
+            if (input == null)
                 return;
 
-            messageContent = trimInputBeginning(messageContent);
-            String[] arguments = splitUserInput(messageContent);
+            dispatch(event, input);
+        }
+
+        @Override
+        protected void onCommandReceived(MessageReceivedEvent event, CommandInput input) {
+            // Only the first argument is read
+            ArgumentCursor arguments = input.getCursor();
 
             EmbedBuilder builder = null;
 
-            if (arguments.length == 0 && getParent() != null) { // Shows a list of commands the command group has
+            if (!arguments.hasNext() && getParent() != null) { // Shows a list of commands the command group has
                 builder = new EmbedBuilder().setTitle("Command Group: " + getParent().getName()).setColor(BotConfiguration.getPromptColor());
 
-                if (getParent().getChildren().length == 0) {
+                if (children.length == 0) {
                     builder.appendDescription("This command group contains no commands.");
                 } else {
                     StringBuilder stringBuilder = new StringBuilder(
                             "This command group contains the following commands: ");
-                    for (Command children : getParent().getChildren()) {
-                        stringBuilder.append(children.getName() + ", ");
+                    for (Command child : children) {
+                        stringBuilder.append(child.getName() + ", ");
+                    }
+                    builder.appendDescription(stringBuilder.substring(0, stringBuilder.length() - 2) + ".");
+                }
+
+                List<CommandGroup> subgroups = CommandDispatcher.getInstance().getRegistry()
+                        .getSubgroups(getParent());
+                if (!subgroups.isEmpty()) {
+                    StringBuilder stringBuilder = new StringBuilder(
+                            " It also contains the following command groups: ");
+                    for (CommandGroup subgroup : subgroups) {
+                        stringBuilder.append(subgroup.getName() + ", ");
                     }
                     builder.appendDescription(stringBuilder.substring(0, stringBuilder.length() - 2) + ".");
                 }
-            } else if (arguments.length == 0 && getParent() == null) { // Shows the help command's info itself
+            } else if (!arguments.hasNext() && getParent() == null) { // Shows the help command's info itself
                 builder = getEmbedInfo();
             } else { // Shows the command of the command group's children that the first arg
                      // specified
-                for (Command children : getParent().getChildren()) {
-                    if (children.getName().equalsIgnoreCase(arguments[0])) {
-                        builder = children.getEmbedInfo();
-                        if (builder == null) {
-                            builder = new EmbedBuilder()
-                                    .setDescription("Information about command \"" + arguments[0] + "\" is hidden.")
-                                    .setColor(BotConfiguration.getErrorColor());
-                        }
+                String target = arguments.nextString();
+                Command child = findChild(target);
+                if (child != null) {
+                    builder = child.getEmbedInfo();
+                    if (builder == null) {
+                        builder = new EmbedBuilder()
+                                .setDescription("Information about command \"" + target + "\" is hidden.")
+                                .setColor(BotConfiguration.getErrorColor());
                     }
-                }
-                if (builder == null) {
-                    builder = new EmbedBuilder().setDescription("Command \"" + arguments[0] + "\" not found.")
+                } else {
+                    builder = new EmbedBuilder().setDescription(getNotFoundDescription(target))
                             .setColor(BotConfiguration.getErrorColor());
                 }
             }
@@ -132,5 +230,31 @@ public abstract class CommandGroup {
             event.getChannel().sendMessage(builder.build()).queue();
         }
 
+        /**
+         * @param target the name or prefix of the command that was not found
+         * @return a description that the command was not found, with the closest
+         *         commands of the command group if there are any
+         */
+        private String getNotFoundDescription(String target) {
+            String description = "Command \"" + target + "\" not found.";
+            CommandRegistry registry = CommandDispatcher.getInstance().getRegistry();
+            String groupPrefix = registry.getInvocationPrefix(CommandGroup.this);
+            if (groupPrefix == null)
+                return description;
+
+            String groupPath = groupPrefix.substring(registry.getBotPrefix().length()) + " ";
+            StringBuilder suggested = new StringBuilder();
+            for (String suggestion : registry.suggest(groupPath + target, MAX_SUGGESTIONS)) {
+                if (suggestion.startsWith(groupPath)) {
+                    suggested.append(suggested.length() == 0 ? "" : ", ")
+                            .append(MarkdownUtil.monospace(suggestion.substring(groupPath.length())));
+                }
+            }
+            if (suggested.length() != 0) {
+                description += " Did you mean: " + suggested + "?";
+            }
+            return description;
+        }
+
     }
 }
\ No newline at end of file
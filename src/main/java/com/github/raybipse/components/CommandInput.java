@@ -0,0 +1,219 @@
+package com.github.raybipse.components;
+
+import com.github.raybipse.core.BotConfiguration;
+import com.github.raybipse.internal.ErrorMessages;
+
+import net.dv8tion.jda.api.entities.ChannelType;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+
+/**
+ * The input of a message routed to a {@link Command}, without the bot prefix,
+ * {@link CommandGroup} prefixes and command prefix.
+ *
+ * Messages are routed on their raw content. The displayed content, in which JDA
+ * resolves every mention into a name, is only computed if a command asks for it
+ * with {@link #getDisplay()}.
+ *
+ * @author RayBipse
+ */
+public class CommandInput {
+
+    private final Command command;
+    private final MessageReceivedEvent event;
+    private final String rawContent;
+    private final int prefixLength;
+    private final boolean mentionPrefix;
+    private final int offset;
+    private final FlagTable flags;
+    private String raw;
+    private String display;
+    private Arguments arguments;
+    private ParsedFlags parsedFlags;
+
+    /**
+     * @param command       the command the message is routed to
+     * @param event         the event of the message
+     * @param rawContent    the raw content of the message
+     * @param prefixLength  the length of the bot prefix, or of the mention of the
+     *                      bot and the whitespace following it, in
+     *                      {@code rawContent}
+     * @param mentionPrefix true if the bot was invoked by a mention
+     * @param end           the index following the invocation prefix in
+     *                      {@code rawContent}
+     */
+    CommandInput(Command command, MessageReceivedEvent event, String rawContent, int prefixLength,
+            boolean mentionPrefix, int end) {
+        this.command = ErrorMessages.requireNonNullParam(command, "command");
+        this.event = ErrorMessages.requireNonNullParam(event, "event");
+        this.rawContent = ErrorMessages.requireNonNullParam(rawContent, "rawContent");
+        this.prefixLength = prefixLength;
+        this.mentionPrefix = mentionPrefix;
+        // Skips the space separating the invocation prefix from the arguments
+        this.offset = end == rawContent.length() ? end : end + 1;
+        this.flags = command.getFlagTable();
+    }
+
+    /**
+     * @return the command the message is routed to
+     */
+    Command getCommand() {
+        return command;
+    }
+
+    /**
+     * @return the event of the message
+     */
+    public MessageReceivedEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * @return the raw content of the message
+     */
+    public String getRawContent() {
+        return rawContent;
+    }
+
+    /**
+     * @return true if the bot was invoked by mentioning it instead of its prefix
+     */
+    public boolean isMentionPrefix() {
+        return mentionPrefix;
+    }
+
+    /**
+     * @return the bot prefix the message was invoked with, or the bot prefix where
+     *         the message was sent if the bot was invoked by a mention
+     */
+    String getBotPrefix() {
+        if (!mentionPrefix) {
+            return rawContent.substring(0, prefixLength);
+        }
+        return event.isFromType(ChannelType.TEXT) ? BotConfiguration.getBotPrefix(event.getGuild().getIdLong())
+                : BotConfiguration.getBotPrefix();
+    }
+
+    /**
+     * Trims the invocation prefix from the content of the message as a command
+     * written as its own listener reads it.
+     *
+     * @param content the raw or displayed content of the message
+     * @return the input in {@code content}, or null if {@code content} is neither
+     *         the raw nor the displayed content of the message
+     */
+    String trim(String content) {
+        if (content.equals(rawContent)) {
+            return getRaw();
+        }
+        if (content.equals(event.getMessage().getContentDisplay())) {
+            return getDisplay();
+        }
+        return null;
+    }
+
+    /**
+     * @return the index in {@link #getRawContent()} where the input begins
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the input in the raw content of the message, in which mentions are
+     *         written as "&lt;@id&gt;". This is the equivalent of
+     *         {@link Command#trimInputBeginning(String)} on the raw content.
+     */
+    public String getRaw() {
+        if (raw == null) {
+            raw = rawContent.substring(offset);
+        }
+        return raw;
+    }
+
+    /**
+     * Splits the whole raw input the first time it is called, without copying it.
+     *
+     * @return the arguments of the raw input, without the {@link Flag flags} of the
+     *         command and their values
+     */
+    public Arguments getArguments() {
+        if (arguments == null) {
+            arguments = Arguments.tokenize(rawContent, offset, rawContent.length(), flags);
+        }
+        return arguments;
+    }
+
+    /**
+     * Reads the {@link Flag flags} of the command in the raw input the first time
+     * it is called.
+     *
+     * @return the flags set in the raw input
+     */
+    public ParsedFlags getFlags() {
+        if (parsedFlags == null) {
+            parsedFlags = flags.parse(rawContent, offset, rawContent.length());
+        }
+        return parsedFlags;
+    }
+
+    /**
+     * Commands that read only some of their arguments should use a cursor, which
+     * splits the raw input only as far as it is read.
+     *
+     * @return a new cursor positioned at the first argument of the raw input. The
+     *         cursor skips the {@link Flag flags} of the command and their values.
+     */
+    public ArgumentCursor getCursor() {
+        return new ArgumentCursor(rawContent, offset, rawContent.length(), flags);
+    }
+
+    /**
+     * @return a new reader of typed arguments, positioned at the first argument of
+     *         the raw input. The reader resolves mentions with the mentions of the
+     *         message.
+     */
+    public ArgumentReader getReader() {
+        return new ArgumentReader(getCursor(), event.getMessage());
+    }
+
+    /**
+     * Resolves the displayed content of the message the first time it is called.
+     *
+     * @return the input in the displayed content of the message, in which mentions
+     *         are resolved into names. This is the equivalent of
+     *         {@link Command#trimInputBeginning(String)} on the displayed content.
+     */
+    public String getDisplay() {
+        if (display == null) {
+            String displayContent = event.getMessage().getContentDisplay();
+            String displayPrefix = mentionPrefix ? getDisplayedMention() : rawContent.substring(0, prefixLength);
+            // The rest of the invocation prefix contains no mention, so it is displayed as written
+            int pathLength = offset - prefixLength;
+            if (displayContent.startsWith(displayPrefix)
+                    && displayContent.regionMatches(displayPrefix.length(), rawContent, prefixLength, pathLength)) {
+                display = displayContent.substring(displayPrefix.length() + pathLength);
+            } else {
+                display = getRaw();
+            }
+        }
+        return display;
+    }
+
+    /**
+     * @return the mention of the bot and the whitespace following it, as JDA
+     *         displays them
+     */
+    private String getDisplayedMention() {
+        String name = event.isFromType(ChannelType.TEXT) ? event.getGuild().getSelfMember().getEffectiveName()
+                : event.getJDA().getSelfUser().getName();
+        return "@" + name + rawContent.substring(rawContent.indexOf('>') + 1, prefixLength);
+    }
+
+    /**
+     * @return the input in the raw content of the message
+     */
+    @Override
+    public String toString() {
+        return getRaw();
+    }
+}
@@ -0,0 +1,316 @@
+package com.github.raybipse.components;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.raybipse.internal.ErrorMessages;
+
+/**
+ * An immutable snapshot of the registered commands, their
+ * {@link CommandGroup command groups} and their full invocation prefixes.
+ *
+ * A registry is never modified. Adding or removing a command, or changing the
+ * bot prefix, makes the {@link CommandDispatcher} build a new registry the next
+ * time it is read, so reading a registry requires no locking and no string
+ * concatenation. The tree of suggestions is only built the first time a
+ * registry is asked for suggestions, so registering many commands one after
+ * another does not build it for every intermediate registry.
+ *
+ * @author RayBipse
+ */
+public final class CommandRegistry {
+
+    /** The greatest edit distance between an input and a suggested invocation. */
+    private static final int MAX_SUGGESTION_DISTANCE = 2;
+
+    private final String botPrefix;
+    private final List<Command> commands;
+    private final List<CommandGroup> groups;
+    private final Map<CommandGroup, String> groupInvocationPrefixes;
+    private final Map<Command, String> invocationPrefixes;
+    private final CommandTrie trie;
+    private final Map<String, Command> invocations;
+    private final List<IllegalArgumentException> errors;
+    private volatile SuggestionTree suggestions;
+
+    /**
+     * A command that cannot be registered is left out of the registry, and the
+     * reason is kept in {@link #getErrors()}, so the other commands are still
+     * routed.
+     * 
+     * @param botPrefix the bot prefix every invocation prefix starts with
+     * @param commands  the registered commands, in order of registration
+     */
+    CommandRegistry(String botPrefix, List<Command> commands) {
+        this.botPrefix = ErrorMessages.requireNonNullParam(botPrefix, "botPrefix");
+
+        List<Command> accepted = new ArrayList<>();
+        List<IllegalArgumentException> errors = new ArrayList<>();
+        List<CommandGroup> groups = new ArrayList<>();
+        Map<CommandGroup, String> groupPaths = new HashMap<>();
+        Map<CommandGroup, List<String>> groupInvocations = new HashMap<>();
+        Map<Command, String> invocationPrefixes = new LinkedHashMap<>();
+        Map<String, Command> invocations = new HashMap<>();
+        for (Command command : commands) {
+            try {
+                CommandGroup parent = command.getParent();
+                String head = "";
+                List<String> heads = Collections.singletonList("");
+                if (parent != null) {
+                    addGroup(parent, groups, groupPaths, groupInvocations, new HashSet<>());
+                    head = groupPaths.get(parent) + " ";
+                    heads = groupInvocations.get(parent);
+                }
+
+                List<String> added = new ArrayList<>();
+                for (String groupHead : heads) {
+                    if (parent != null) {
+                        groupHead += " ";
+                    }
+                    added.add(groupHead + command.getPrefix());
+                    for (String alias : command.getAliases()) {
+                        added.add(groupHead + alias);
+                    }
+                }
+                // Every invocation is checked before any is added, so a rejected command leaves nothing behind
+                for (String invocation : added) {
+                    checkInvocation(invocations, invocation, command);
+                }
+                for (String invocation : added) {
+                    invocations.put(invocation, command);
+                }
+                invocationPrefixes.put(command, botPrefix + head + command.getPrefix());
+                accepted.add(command);
+            } catch (IllegalArgumentException e) {
+                errors.add(e);
+            }
+        }
+
+        Map<CommandGroup, String> groupInvocationPrefixes = new HashMap<>();
+        for (Map.Entry<CommandGroup, String> entry : groupPaths.entrySet()) {
+            groupInvocationPrefixes.put(entry.getKey(), botPrefix + entry.getValue());
+        }
+        this.commands = Collections.unmodifiableList(accepted);
+        this.errors = Collections.unmodifiableList(errors);
+        this.groups = Collections.unmodifiableList(groups);
+        this.groupInvocationPrefixes = Collections.unmodifiableMap(groupInvocationPrefixes);
+        this.invocationPrefixes = Collections.unmodifiableMap(invocationPrefixes);
+        this.trie = new CommandTrie(invocations);
+        this.invocations = Collections.unmodifiableMap(invocations);
+    }
+
+    private static void checkInvocation(Map<String, Command> invocations, String invocation, Command command) {
+        Command existing = invocations.get(invocation);
+        if (existing != null && existing != command) {
+            throw new IllegalArgumentException("\"" + invocation + "\" invokes both \"" + existing.getName()
+                    + "\" and \"" + command.getName() + "\".");
+        }
+    }
+
+    /**
+     * Adds {@code group} and its ancestors to {@code groups}, and computes the
+     * paths that lead to the command group after the bot prefix. Each command
+     * group is computed only once, however deep it is nested.
+     */
+    private static void addGroup(CommandGroup group, List<CommandGroup> groups, Map<CommandGroup, String> groupPaths,
+            Map<CommandGroup, List<String>> groupInvocations, Set<CommandGroup> descendants) {
+        if (groupInvocations.containsKey(group)) {
+            return;
+        }
+        if (!descendants.add(group)) {
+            throw new IllegalArgumentException("Command group \"" + group.getName() + "\" is its own ancestor.");
+        }
+
+        CommandGroup parent = group.getParent();
+        String head = "";
+        List<String> heads = Collections.singletonList("");
+        if (parent != null) {
+            addGroup(parent, groups, groupPaths, groupInvocations, descendants);
+            head = groupPaths.get(parent) + " ";
+            heads = new ArrayList<>();
+            for (String parentInvocation : groupInvocations.get(parent)) {
+                heads.add(parentInvocation + " ");
+            }
+        }
+
+        List<String> invocations = new ArrayList<>();
+        for (String parentHead : heads) {
+            invocations.add(parentHead + group.getPrefix());
+            for (String alias : group.getAliases()) {
+                invocations.add(parentHead + alias);
+            }
+        }
+        groups.add(group);
+        groupPaths.put(group, head + group.getPrefix());
+        groupInvocations.put(group, invocations);
+    }
+
+    /**
+     * @param botPrefix the bot prefix
+     * @param command   the command
+     * @return the string a message must start with to invoke {@code command}
+     */
+    static String buildInvocationPrefix(String botPrefix, Command command) {
+        CommandGroup parent = command.getParent();
+        if (parent == null) {
+            return botPrefix + command.getPrefix();
+        }
+        return buildInvocationPrefix(botPrefix, parent) + " " + command.getPrefix();
+    }
+
+    /**
+     * @param botPrefix the bot prefix
+     * @param group     the command group
+     * @return the string a message must start with to invoke the children of
+     *         {@code group}, without the space separating it from their prefix
+     */
+    static String buildInvocationPrefix(String botPrefix, CommandGroup group) {
+        StringBuilder builder = new StringBuilder(group.getPrefix());
+        for (CommandGroup parent = group.getParent(); parent != null; parent = parent.getParent()) {
+            builder.insert(0, ' ').insert(0, parent.getPrefix());
+        }
+        return builder.insert(0, botPrefix).toString();
+    }
+
+    /**
+     * @return the bot prefix the registry was built with
+     */
+    public String getBotPrefix() {
+        return botPrefix;
+    }
+
+    /**
+     * @return an unmodifiable list of the registered commands, without the
+     *         commands left out because of {@link #getErrors()}
+     */
+    public List<Command> getCommands() {
+        return commands;
+    }
+
+    /**
+     * Each error is an {@link IllegalArgumentException} thrown because the
+     * prefixes or aliases of a command resolve to an invocation of a command
+     * registered before it, or because a command group is its own ancestor. The
+     * command is left out of the registry.
+     * 
+     * @return an unmodifiable list of the reasons commands were left out, in order
+     *         of registration
+     */
+    public List<IllegalArgumentException> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return an unmodifiable list of the command groups of the registered
+     *         commands, and their ancestors
+     */
+    public List<CommandGroup> getGroups() {
+        return groups;
+    }
+
+    /**
+     * @param command the command
+     * @return the string a message must start with to invoke {@code command}, or
+     *         null if {@code command} is not registered
+     */
+    public String getInvocationPrefix(Command command) {
+        return invocationPrefixes.get(command);
+    }
+
+    /**
+     * @param group the command group
+     * @return the string a message must start with to invoke the children of
+     *         {@code group}, without the space separating it from their prefix, or
+     *         null if {@code group} has no registered command
+     */
+    public String getInvocationPrefix(CommandGroup group) {
+        return groupInvocationPrefixes.get(group);
+    }
+
+    /**
+     * @param group the command group
+     * @return the command groups whose parent is {@code group}, in order of
+     *         registration
+     */
+    public List<CommandGroup> getSubgroups(CommandGroup group) {
+        List<CommandGroup> subgroups = new ArrayList<>();
+        for (CommandGroup candidate : groups) {
+            if (candidate.getParent() == group) {
+                subgroups.add(candidate);
+            }
+        }
+        return subgroups;
+    }
+
+    /**
+     * Suggests the invocations closest to {@code input} by edit distance. Each
+     * number of leading words of {@code input}, up to the number of words of the
+     * longest invocation, is compared, so the arguments following a mistyped
+     * invocation do not prevent it from being suggested.
+     * 
+     * @param input the text following the bot prefix, such as "hlep" or "mod bna
+     *              user"
+     * @param limit the most number of suggestions
+     * @return the suggested invocations after the bot prefix, closest first
+     */
+    public List<String> suggest(String input, int limit) {
+        ErrorMessages.requireNonNullParam(input, "input");
+        SuggestionTree suggestions = getSuggestions();
+        Map<String, Integer> found = new HashMap<>();
+        StringBuilder query = new StringBuilder();
+        int words = 0;
+        int i = 0;
+        while (words < suggestions.getMaxWords()) {
+            while (i < input.length() && Character.isWhitespace(input.charAt(i))) {
+                i++;
+            }
+            if (i == input.length()) {
+                break;
+            }
+            if (words != 0) {
+                query.append(' ');
+            }
+            while (i < input.length() && !Character.isWhitespace(input.charAt(i))) {
+                query.append(input.charAt(i++));
+            }
+            words++;
+            // Short words are only allowed a single edit, so they are not close to everything
+            int maxDistance = Math.min(MAX_SUGGESTION_DISTANCE, Math.max(1, query.length() / 2));
+            suggestions.search(query.toString(), maxDistance, found);
+        }
+
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(found.entrySet());
+        entries.sort(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        List<String> suggested = new ArrayList<>();
+        for (int j = 0; j < entries.size() && j < limit; j++) {
+            suggested.add(entries.get(j).getKey());
+        }
+        return suggested;
+    }
+
+    private SuggestionTree getSuggestions() {
+        SuggestionTree suggestions = this.suggestions;
+        return suggestions != null ? suggestions : buildSuggestions();
+    }
+
+    private synchronized SuggestionTree buildSuggestions() {
+        if (suggestions == null) {
+            suggestions = new SuggestionTree(invocations);
+        }
+        return suggestions;
+    }
+
+    /**
+     * @return the prefix tree of the paths that follow the bot prefix to invoke the
+     *         registered commands
+     */
+    CommandTrie getTrie() {
+        return trie;
+    }
+}
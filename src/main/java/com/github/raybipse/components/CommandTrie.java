@@ -0,0 +1,118 @@
+package com.github.raybipse.components;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import com.github.raybipse.internal.ErrorMessages;
+
+/**
+ * A prefix tree over the paths that invoke commands after the bot prefix, which
+ * are the prefixes of the {@link CommandGroup command groups} (if there are any)
+ * and the command prefix.
+ *
+ * The tree resolves the command a message invokes in a single pass over the
+ * message, so the cost of routing depends on the length of the message instead
+ * of the number of commands. A trie is never modified after it is built.
+ *
+ * @author RayBipse
+ */
+class CommandTrie {
+
+    private final Node root = new Node(0);
+
+    /**
+     * @param invocations the paths to be added to the tree, mapped to the commands
+     *                    they invoke
+     */
+    CommandTrie(Map<String, Command> invocations) {
+        ErrorMessages.requireNonNullParam(invocations, "invocations");
+        for (Map.Entry<String, Command> entry : invocations.entrySet()) {
+            insert(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void insert(String path, Command command) {
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            node = node.getOrAddChild(path.charAt(i));
+        }
+        node.command = command;
+    }
+
+    /**
+     * Finds the command invoked by the path that starts at {@code offset} in
+     * {@code input}. A command is invoked if the rest of the input equals its path,
+     * or starts with its path followed by a space. If more than one command
+     * matches, the one with the longest path is returned.
+     *
+     * @param input  the content of the message
+     * @param offset the index following the bot prefix in {@code input}
+     * @return the node of the invoked command, or null if no command is invoked
+     */
+    Node find(CharSequence input, int offset) {
+        Node node = root;
+        int length = input.length();
+        Node match = node.command != null && (offset == length || input.charAt(offset) == ' ') ? node : null;
+        for (int i = offset; i < length; i++) {
+            node = node.getChild(input.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.command != null && (i + 1 == length || input.charAt(i + 1) == ' ')) {
+                match = node;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * A node of the tree. A node that ends an invocation prefix holds the command
+     * it invokes.
+     */
+    static class Node {
+        private final int depth;
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Command command;
+
+        private Node(int depth) {
+            this.depth = depth;
+        }
+
+        /**
+         * @return the command whose path ends at this node, or null if there is none
+         */
+        Command getCommand() {
+            return command;
+        }
+
+        /**
+         * @return the length of the path ending at this node
+         */
+        int getDepth() {
+            return depth;
+        }
+
+        private Node getChild(char c) {
+            char[] keys = this.keys;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node getOrAddChild(char c) {
+            Node child = getChild(c);
+            if (child == null) {
+                child = new Node(depth + 1);
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
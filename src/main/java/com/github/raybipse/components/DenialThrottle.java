@@ -0,0 +1,198 @@
+package com.github.raybipse.components;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.raybipse.core.BotConfiguration;
+import com.github.raybipse.internal.ErrorMessages;
+
+/**
+ * Decides whether a user who was denied a command is answered, so a user who
+ * invokes a restricted command over and over does not make the bot send a
+ * message for every attempt.
+ *
+ * A user is answered at most once per command within the denial reply window
+ * of {@link BotConfiguration#getDenialReplyWindow()}, and a channel receives at
+ * most {@link BotConfiguration#getDenialReplyBudget()} answers within the
+ * period of {@link BotConfiguration#getDenialReplyBudgetPeriod()}. Both are kept
+ * in a fixed number of slots, each holding the latest answer hashed to it, and
+ * replaced without locking. Two users or channels hashed to the same slot only
+ * ever let an answer through.
+ *
+ * The default consumer of {@link Command#getOnRolePermissionFail()} is
+ * throttled. A consumer set with
+ * {@link Command#setOnRolePermissionFail(java.util.function.Consumer)} can call
+ * {@link #tryReply(Command, long, long)} itself.
+ *
+ * @author RayBipse
+ */
+public final class DenialThrottle {
+
+    private static final DenialThrottle instance = new DenialThrottle();
+
+    private static final int USER_SLOTS = 1 << 12;
+    private static final int CHANNEL_SLOTS = 1 << 10;
+
+    private final AtomicReferenceArray<Reply> replies = new AtomicReferenceArray<>(USER_SLOTS);
+    private final AtomicReferenceArray<Budget> budgets = new AtomicReferenceArray<>(CHANNEL_SLOTS);
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder suppressedByWindow = new LongAdder();
+    private final LongAdder suppressedByBudget = new LongAdder();
+
+    private DenialThrottle() {
+    }
+
+    /**
+     * @return the instance of the denial throttle
+     */
+    public static DenialThrottle getInstance() {
+        return instance;
+    }
+
+    /**
+     * Counts an answer to a denied user if it may be sent.
+     *
+     * @param command   the command the user was denied
+     * @param userId    the ID of the user
+     * @param channelId the ID of the channel the command was invoked in
+     * @return true if the answer may be sent, or false if it is suppressed
+     */
+    public boolean tryReply(Command command, long userId, long channelId) {
+        ErrorMessages.requireNonNullParam(command, "command");
+        long now = System.nanoTime();
+        long window = TimeUnit.MILLISECONDS.toNanos(BotConfiguration.getDenialReplyWindow());
+        int slot = slot(mix(userId, System.identityHashCode(command)), USER_SLOTS);
+        if (isAnswered(replies.get(slot), command, userId, now, window)) {
+            suppressedByWindow.increment();
+            return false;
+        }
+        // The window is claimed only once the budget admits the answer, so a suppressed answer does not use it up
+        if (!claimBudget(channelId, now)) {
+            suppressedByBudget.increment();
+            return false;
+        }
+        if (!claimWindow(slot, command, userId, now, window)) {
+            suppressedByWindow.increment();
+            return false;
+        }
+        sent.increment();
+        return true;
+    }
+
+    private static boolean isAnswered(Reply reply, Command command, long userId, long now, long window) {
+        return reply != null && reply.command == command && reply.userId == userId && now - reply.time < window;
+    }
+
+    private boolean claimWindow(int slot, Command command, long userId, long now, long window) {
+        if (window == 0) {
+            return true;
+        }
+        while (true) {
+            Reply reply = replies.get(slot);
+            if (isAnswered(reply, command, userId, now, window)) {
+                return false;
+            }
+            // Losing the race means another attempt of the user was just answered
+            if (replies.compareAndSet(slot, reply, new Reply(command, userId, now))) {
+                return true;
+            }
+        }
+    }
+
+    private boolean claimBudget(long channelId, long now) {
+        int limit = BotConfiguration.getDenialReplyBudget();
+        if (limit == 0) {
+            return true;
+        }
+        long period = TimeUnit.MILLISECONDS.toNanos(BotConfiguration.getDenialReplyBudgetPeriod());
+        int slot = slot(mix(channelId, 0), CHANNEL_SLOTS);
+        while (true) {
+            Budget budget = budgets.get(slot);
+            Budget next;
+            if (budget == null || budget.channelId != channelId || now - budget.start >= period) {
+                next = new Budget(channelId, now, 1);
+            } else if (budget.count < limit) {
+                next = new Budget(channelId, budget.start, budget.count + 1);
+            } else {
+                return false;
+            }
+            if (budgets.compareAndSet(slot, budget, next)) {
+                return true;
+            }
+        }
+    }
+
+    private static long mix(long id, long salt) {
+        long h = id * 0x9E3779B97F4A7C15L + salt;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        return h ^ (h >>> 33);
+    }
+
+    private static int slot(long hash, int slots) {
+        return (int) hash & (slots - 1);
+    }
+
+    /**
+     * @return the number of answers that were sent
+     */
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    /**
+     * @return the number of answers suppressed because the user was answered
+     *         within the denial reply window
+     */
+    public long getSuppressedByWindowCount() {
+        return suppressedByWindow.sum();
+    }
+
+    /**
+     * @return the number of answers suppressed because the channel ran out of
+     *         its denial reply budget
+     */
+    public long getSuppressedByBudgetCount() {
+        return suppressedByBudget.sum();
+    }
+
+    /**
+     * @return the number of answers that were suppressed for any reason
+     */
+    public long getSuppressedCount() {
+        return suppressedByWindow.sum() + suppressedByBudget.sum();
+    }
+
+    /**
+     * The latest answer to a user for a command, replaced as a whole in its slot.
+     */
+    private static final class Reply {
+        private final Command command;
+        private final long userId;
+        private final long time;
+
+        private Reply(Command command, long userId, long time) {
+            this.command = command;
+            this.userId = userId;
+            this.time = time;
+        }
+    }
+
+    /**
+     * The answers sent to a channel since the start of its period, replaced as a
+     * whole in its slot.
+     */
+    private static final class Budget {
+        private final long channelId;
+        private final long start;
+        private final int count;
+
+        private Budget(long channelId, long start, int count) {
+            this.channelId = channelId;
+            this.start = start;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.raybipse.components;
+
+/**
+ * A named option of a {@link Command}, such as {@code --limit=50} or
+ * {@code -v}, declared by {@link Command#getFlags()}.
+ *
+ * <ul>
+ * <li>{@code --name} sets the flag. A flag that takes a value is written as
+ * {@code --name=value} or {@code --name value}.</li>
+ * <li>{@code -n} sets the flag by its short name. Short names of flags without
+ * a value can be combined, as in {@code -vq}, and a value can follow the short
+ * name directly, as in {@code -l50}, or as the next argument.</li>
+ * <li>{@code --} ends the flags, and every argument after it is positional.</li>
+ * </ul>
+ *
+ * An argument that looks like a flag but is not declared, such as {@code -5}, is
+ * positional. Flags are taken out of the arguments returned by
+ * {@link CommandInput#getArguments()}, {@link CommandInput#getCursor()} and
+ * {@link CommandInput#getReader()}, and read with
+ * {@link CommandInput#getFlags()}.
+ *
+ * @author RayBipse
+ */
+public final class Flag {
+
+    private final String name;
+    private final char shortName;
+    private final boolean takesValue;
+    private final String description;
+
+    /**
+     * @param name        the name of the flag, written after {@code --}
+     * @param shortName   the short name of the flag, written after {@code -}. The
+     *                    short name must be an ASCII letter or digit, or 0 if there
+     *                    is none.
+     * @param takesValue  true if the flag is followed by a value
+     * @param description the description of the flag. Can be null.
+     */
+    public Flag(String name, char shortName, boolean takesValue, String description) {
+        if (name == null) {
+            throw new IllegalArgumentException("\"name\" cannot be null.");
+        }
+        if (name.isEmpty() || name.charAt(0) == '-') {
+            throw new IllegalArgumentException("\"name\" cannot be empty or start with '-'.");
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '=' || Character.isWhitespace(c) || ArgumentLexer.isCharQuotationMark(c) || c == '\\') {
+                throw new IllegalArgumentException(
+                        "\"name\" cannot contain whitespace, '=', '\\\\' or quotation marks.");
+            }
+        }
+        if (shortName != 0 && !(shortName < 128 && Character.isLetterOrDigit(shortName))) {
+            throw new IllegalArgumentException("\"shortName\" must be an ASCII letter or digit.");
+        }
+        this.name = name;
+        this.shortName = shortName;
+        this.takesValue = takesValue;
+        this.description = description;
+    }
+
+    /**
+     * @param name       the name of the flag, written after {@code --}
+     * @param shortName  the short name of the flag, written after {@code -}, or 0
+     *                   if there is none
+     * @param takesValue true if the flag is followed by a value
+     */
+    public Flag(String name, char shortName, boolean takesValue) {
+        this(name, shortName, takesValue, null);
+    }
+
+    /**
+     * @return the name of the flag, written after {@code --}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the short name of the flag, written after {@code -}, or 0 if there is
+     *         none
+     */
+    public char getShortName() {
+        return shortName;
+    }
+
+    /**
+     * @return true if the flag is followed by a value
+     */
+    public boolean takesValue() {
+        return takesValue;
+    }
+
+    /**
+     * @return the description of the flag, or null if there is none
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return the flag as it is written in the syntax of a command
+     */
+    @Override
+    public String toString() {
+        return "--" + name + (takesValue ? "=<value>" : "");
+    }
+}
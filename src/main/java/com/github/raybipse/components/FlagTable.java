@@ -0,0 +1,323 @@
+package com.github.raybipse.components;
+
+import java.util.Arrays;
+
+/**
+ * The flags declared by a {@link Command}, compiled once when the command is
+ * constructed.
+ *
+ * Names are found through a perfect hash: a seed is searched for that gives
+ * every declared name its own slot, so finding a name in the input hashes it
+ * once and compares it with at most one declared name, without creating a
+ * string. Short names are found in a table indexed by the character.
+ *
+ * @author RayBipse
+ */
+final class FlagTable {
+
+    /** The most number of flags a command can declare. */
+    static final int MAX_FLAGS = Long.SIZE;
+
+    /**
+     * The number of entries of an array passed to
+     * {@link #nextPositional(CharSequence, int, int, int[], int[])}: the three
+     * filled by {@link ArgumentLexer}, and whether {@code --} has been passed.
+     */
+    static final int TOKEN_FIELDS = 4;
+
+    static final FlagTable EMPTY = new FlagTable(new Flag[0], new int[1], 0);
+
+    private static final int MAX_SLOTS = 1 << 12;
+    private static final int SEEDS_PER_SIZE = 1 << 10;
+
+    private final Flag[] flags;
+    private final int[] slots;
+    private final int seed;
+    private final byte[] shortNames = new byte[128];
+
+    private FlagTable(Flag[] flags, int[] slots, int seed) {
+        this.flags = flags;
+        this.slots = slots;
+        this.seed = seed;
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i].getShortName() != 0) {
+                shortNames[flags[i].getShortName()] = (byte) (i + 1);
+            }
+        }
+    }
+
+    /**
+     * @param flags the flags declared by a command
+     * @return the table of {@code flags}
+     *
+     * @throws IllegalArgumentException if two flags have the same name or short
+     *                                  name, or there are more than
+     *                                  {@link #MAX_FLAGS} flags
+     */
+    static FlagTable compile(Flag[] flags) {
+        if (flags.length == 0) {
+            return EMPTY;
+        }
+        if (flags.length > MAX_FLAGS) {
+            throw new IllegalArgumentException("A command cannot declare more than " + MAX_FLAGS + " flags.");
+        }
+        flags = flags.clone();
+        boolean[] shortNames = new boolean[128];
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i] == null) {
+                throw new IllegalArgumentException("\"flags\" cannot contain null.");
+            }
+            char shortName = flags[i].getShortName();
+            if (shortName != 0) {
+                if (shortNames[shortName]) {
+                    throw new IllegalArgumentException("The short name '" + shortName + "' is declared twice.");
+                }
+                shortNames[shortName] = true;
+            }
+            for (int j = 0; j < i; j++) {
+                if (flags[i].getName().equals(flags[j].getName())) {
+                    throw new IllegalArgumentException("The flag \"" + flags[i].getName() + "\" is declared twice.");
+                }
+            }
+        }
+
+        int size = Integer.highestOneBit(flags.length * 2 - 1) << 1;
+        for (; size <= MAX_SLOTS; size <<= 1) {
+            int[] slots = new int[size];
+            for (int seed = 1; seed <= SEEDS_PER_SIZE; seed++) {
+                if (fill(flags, slots, seed)) {
+                    return new FlagTable(flags, slots, seed);
+                }
+            }
+        }
+        throw new IllegalArgumentException("The names of the flags cannot be hashed.");
+    }
+
+    /**
+     * Places every flag in the slot of its name.
+     *
+     * @return true if no two names share a slot
+     */
+    private static boolean fill(Flag[] flags, int[] slots, int seed) {
+        Arrays.fill(slots, 0);
+        int mask = slots.length - 1;
+        for (int i = 0; i < flags.length; i++) {
+            String name = flags[i].getName();
+            int slot = hash(name, 0, name.length(), seed) & mask;
+            if (slots[slot] != 0) {
+                return false;
+            }
+            slots[slot] = i + 1;
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence input, int from, int to, int seed) {
+        int h = seed * 0x9E3779B9;
+        for (int i = from; i < to; i++) {
+            h = (h ^ input.charAt(i)) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+
+    /**
+     * @return true if no flag is declared
+     */
+    boolean isEmpty() {
+        return flags.length == 0;
+    }
+
+    /**
+     * @return the number of flags
+     */
+    int size() {
+        return flags.length;
+    }
+
+    /**
+     * @param index the index of the flag
+     * @return the flag
+     */
+    Flag get(int index) {
+        return flags[index];
+    }
+
+    /**
+     * @param input the input
+     * @param from  the index the name starts at
+     * @param to    the index the name ends at, exclusive
+     * @return the index of the flag with the name, or -1 if there is none
+     */
+    int find(CharSequence input, int from, int to) {
+        if (flags.length == 0) {
+            return -1;
+        }
+        int index = slots[hash(input, from, to, seed) & (slots.length - 1)] - 1;
+        if (index == -1) {
+            return -1;
+        }
+        String name = flags[index].getName();
+        if (name.length() != to - from) {
+            return -1;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != input.charAt(from + i)) {
+                return -1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @param c the short name
+     * @return the index of the flag with the short name, or -1 if there is none
+     */
+    int findShort(char c) {
+        return c < 128 ? shortNames[c] - 1 : -1;
+    }
+
+    /**
+     * @param input the input
+     * @param token the range of an argument scanned by {@link ArgumentLexer}
+     * @return true if the argument is {@code --}, which ends the flags
+     */
+    static boolean isTerminator(CharSequence input, int[] token) {
+        return token[1] - token[0] == 2 && input.charAt(token[0]) == '-' && input.charAt(token[0] + 1) == '-';
+    }
+
+    /**
+     * Reads the argument in {@code token} as a flag, and the argument following it
+     * if it is the value of the flag.
+     *
+     * @param input   the input
+     * @param token   the range of an argument scanned by {@link ArgumentLexer}
+     * @param to      the index the input ends at, exclusive
+     * @param scratch receives the range of the value if it is the next argument
+     * @param out     receives the flag and its value. Can be null.
+     * @return the index following the flag and its value, or -1 if the argument is
+     *         not a declared flag
+     */
+    int match(CharSequence input, int[] token, int to, int[] scratch, ParsedFlags out) {
+        int start = token[0];
+        int end = token[1];
+        if (flags.length == 0 || end - start < 2 || input.charAt(start) != '-') {
+            return -1;
+        }
+
+        if (input.charAt(start + 1) == '-') {
+            int nameEnd = start + 2;
+            while (nameEnd < end && input.charAt(nameEnd) != '=') {
+                nameEnd++;
+            }
+            int index = find(input, start + 2, nameEnd);
+            if (index == -1) {
+                return -1;
+            }
+            if (nameEnd == end) {
+                return flags[index].takesValue() ? takeValue(index, input, end, to, scratch, out)
+                        : set(index, -1, -1, 0, end, out);
+            }
+            if (!flags[index].takesValue()) {
+                if (out != null) {
+                    out.reject(index, ArgumentError.Type.FLAG, ArgumentError.Reason.INVALID,
+                            input.subSequence(start, end).toString());
+                }
+                return end;
+            }
+            return set(index, nameEnd + 1, end, token[2], end, out);
+        }
+
+        // Every short name must be declared, up to the first one that takes a value
+        for (int i = start + 1; i < end; i++) {
+            int index = findShort(input.charAt(i));
+            if (index == -1) {
+                return -1;
+            }
+            if (flags[index].takesValue()) {
+                break;
+            }
+        }
+        for (int i = start + 1; i < end; i++) {
+            int index = findShort(input.charAt(i));
+            if (flags[index].takesValue()) {
+                return i + 1 < end ? set(index, i + 1, end, token[2], end, out)
+                        : takeValue(index, input, end, to, scratch, out);
+            }
+            set(index, -1, -1, 0, end, out);
+        }
+        return end;
+    }
+
+    private int takeValue(int index, CharSequence input, int from, int to, int[] scratch, ParsedFlags out) {
+        int next = ArgumentLexer.next(input, from, to, scratch);
+        if (next == -1) {
+            if (out != null) {
+                out.reject(index, ArgumentError.Type.TEXT, ArgumentError.Reason.MISSING, null);
+            }
+            return from;
+        }
+        return set(index, scratch[0], scratch[1], scratch[2], next, out);
+    }
+
+    private static int set(int index, int start, int end, int flags, int next, ParsedFlags out) {
+        if (out != null) {
+            out.set(index, start, end, flags);
+        }
+        return next;
+    }
+
+    /**
+     * Scans the next argument that is neither a flag nor the value of a flag.
+     *
+     * @param input   the input
+     * @param from    the index to start scanning at
+     * @param to      the index the input ends at, exclusive
+     * @param token   receives the argument, as filled by {@link ArgumentLexer}.
+     *                The entry at index 3 is set to 1 once {@code --} is passed,
+     *                and must be 0 before the first argument is scanned.
+     * @param scratch receives the ranges of the values of flags
+     * @return the index following the argument, or -1 if there is none
+     */
+    int nextPositional(CharSequence input, int from, int to, int[] token, int[] scratch) {
+        int next = ArgumentLexer.next(input, from, to, token);
+        while (next != -1 && token[3] == 0 && flags.length != 0) {
+            if (isTerminator(input, token)) {
+                token[3] = 1;
+            } else {
+                int afterFlag = match(input, token, to, scratch, null);
+                if (afterFlag == -1) {
+                    break;
+                }
+                next = afterFlag;
+            }
+            next = ArgumentLexer.next(input, next, to, token);
+        }
+        return next;
+    }
+
+    /**
+     * Reads every flag of the range of {@code input} from {@code from} to
+     * {@code to}.
+     *
+     * @param input the input
+     * @param from  the index the range starts at, inclusive
+     * @param to    the index the range ends at, exclusive
+     * @return the flags that are set
+     */
+    ParsedFlags parse(CharSequence input, int from, int to) {
+        ParsedFlags out = new ParsedFlags(this, input);
+        if (flags.length == 0) {
+            return out;
+        }
+        ParseScratch scratch = ParseScratch.get();
+        int[] token = scratch.token;
+        int i = ArgumentLexer.next(input, from, to, token);
+        while (i != -1 && !isTerminator(input, token)) {
+            int next = match(input, token, to, scratch.value, out);
+            i = ArgumentLexer.next(input, next == -1 ? i : next, to, token);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.raybipse.components;
+
+/**
+ * Buffers reused by every message routed and split on the same thread, so
+ * routing and splitting a message allocates only the objects it returns.
+ *
+ * A buffer is only borrowed for the length of a single method that does not
+ * call out of the framework, so borrowing it again on the same thread is always
+ * safe. A string builder that grew past its retained size is replaced instead
+ * of kept for the life of the thread.
+ *
+ * @author RayBipse
+ */
+final class ParseScratch {
+
+    private static final ThreadLocal<ParseScratch> SCRATCH = ThreadLocal.withInitial(ParseScratch::new);
+
+    private static final int STAGED_TOKENS = 32;
+    private static final int RETAINED_CHARS = 1 << 12;
+
+    /** Receives the argument being scanned. */
+    final int[] token = new int[FlagTable.TOKEN_FIELDS];
+    /** Receives the value of a flag being scanned. */
+    final int[] value = new int[FlagTable.TOKEN_FIELDS];
+    /** Holds the ranges of arguments until their number is known. */
+    final int[] tokens = new int[STAGED_TOKENS * Arguments.FIELDS];
+    private StringBuilder builder = new StringBuilder();
+
+    private ParseScratch() {
+    }
+
+    /**
+     * @return the buffers of the current thread
+     */
+    static ParseScratch get() {
+        return SCRATCH.get();
+    }
+
+    /**
+     * @return an empty string builder
+     */
+    StringBuilder builder() {
+        if (builder.capacity() > RETAINED_CHARS) {
+            builder = new StringBuilder();
+        }
+        builder.setLength(0);
+        return builder;
+    }
+
+    /**
+     * Takes the quotation marks out of an argument with the string builder of the
+     * current thread.
+     *
+     * @see ArgumentLexer#unquote(CharSequence, int, int, StringBuilder)
+     */
+    static String unquote(CharSequence input, int start, int end) {
+        return ArgumentLexer.unquote(input, start, end, get().builder()).toString();
+    }
+}
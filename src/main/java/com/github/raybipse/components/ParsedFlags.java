@@ -0,0 +1,118 @@
+package com.github.raybipse.components;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@link Flag flags} set in the input of a command, returned by
+ * {@link CommandInput#getFlags()}.
+ *
+ * Values are stored as offsets into the input, and a {@link String} is only
+ * created when {@link #getString(String)} is called, or when a value contains
+ * quotation marks that have to be taken out. If a flag is set more than once,
+ * the last value is kept.
+ *
+ * @author RayBipse
+ */
+public final class ParsedFlags {
+
+    private static final int FIELDS = 3;
+
+    private final FlagTable table;
+    private final CharSequence source;
+    private final int[] values;
+    private long set;
+    private List<ArgumentError> errors;
+
+    ParsedFlags(FlagTable table, CharSequence source) {
+        this.table = table;
+        this.source = source;
+        this.values = new int[FIELDS * table.size()];
+    }
+
+    void set(int index, int start, int end, int flags) {
+        set |= 1L << index;
+        values[FIELDS * index] = start;
+        values[FIELDS * index + 1] = end;
+        values[FIELDS * index + 2] = flags;
+    }
+
+    void reject(int index, ArgumentError.Type type, ArgumentError.Reason reason, String value) {
+        if (errors == null) {
+            errors = new ArrayList<>();
+        }
+        errors.add(new ArgumentError(index, "--" + table.get(index).getName(), type, reason, value));
+    }
+
+    /**
+     * @param name the name of a declared flag
+     * @return true if the flag is set
+     *
+     * @throws IllegalArgumentException if no flag with the name is declared
+     */
+    public boolean has(String name) {
+        return (set & (1L << indexOf(name))) != 0;
+    }
+
+    /**
+     * @param name the name of a declared flag that takes a value
+     * @return the value of the flag, or null if it is not set. Values without
+     *         quotation marks are returned as a view over the input, without
+     *         copying it.
+     *
+     * @throws IllegalArgumentException if no flag with the name is declared
+     */
+    public CharSequence get(String name) {
+        int index = indexOf(name);
+        if ((set & (1L << index)) == 0 || values[FIELDS * index] == -1) {
+            return null;
+        }
+        int start = values[FIELDS * index];
+        int end = values[FIELDS * index + 1];
+        if ((values[FIELDS * index + 2] & ArgumentLexer.QUOTED) != 0) {
+            return ParseScratch.unquote(source, start, end);
+        }
+        return new Arguments.View(source, start, end);
+    }
+
+    /**
+     * @param name the name of a declared flag that takes a value
+     * @return the value of the flag as a string, or null if it is not set
+     *
+     * @throws IllegalArgumentException if no flag with the name is declared
+     */
+    public String getString(String name) {
+        CharSequence value = get(name);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * @return true if a flag was written without its value, or with a value it
+     *         does not take
+     */
+    public boolean hasErrors() {
+        return errors != null;
+    }
+
+    /**
+     * The index of each error is the index of the flag in
+     * {@link Command#getFlags()}.
+     *
+     * @return the errors of the flags that could not be read, in order
+     */
+    public List<ArgumentError> getErrors() {
+        return errors == null ? Collections.emptyList() : Collections.unmodifiableList(errors);
+    }
+
+    private int indexOf(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("\"name\" cannot be null.");
+        }
+        int index = table.find(name, 0, name.length());
+        if (index == -1) {
+            throw new IllegalArgumentException("\"" + name + "\" is not a declared flag.");
+        }
+        return index;
+    }
+}
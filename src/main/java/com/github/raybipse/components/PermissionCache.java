@@ -0,0 +1,216 @@
+package com.github.raybipse.components;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.events.ReconnectedEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberLeaveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleAddEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleRemoveEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+
+/**
+ * Remembers whether a member may invoke a command, so a member who runs the
+ * same command again is answered without checking their roles.
+ *
+ * The cache has a fixed number of slots, each holding the latest decision for
+ * the member and command hashed to it, and never grows. A decision is kept with
+ * the version of the roles of the command and the epochs of the member and the
+ * guild when it was made. Giving a role to or taking a role from a member, or
+ * the member leaving, moves the epoch of the member, and deleting a role moves
+ * the epoch of the guild, so every decision made before is ignored. Role
+ * changes are missed while JDA is disconnected, so reconnecting moves the
+ * epoch of every guild. Epochs are kept in a fixed number of slots too, so
+ * moving the epoch of a member may also invalidate the decisions of another
+ * member, which is only ever a miss.
+ *
+ * The cache is registered to JDA by the {@link CommandDispatcher} with the
+ * first command.
+ *
+ * @author RayBipse
+ */
+public final class PermissionCache extends ListenerAdapter {
+
+    private static final PermissionCache instance = new PermissionCache();
+
+    private static final int DECISION_SLOTS = 1 << 12;
+    private static final int EPOCH_SLOTS = 1 << 10;
+
+    private final AtomicReferenceArray<Decision> decisions = new AtomicReferenceArray<>(DECISION_SLOTS);
+    private final AtomicLongArray memberEpochs = new AtomicLongArray(EPOCH_SLOTS);
+    private final AtomicLongArray guildEpochs = new AtomicLongArray(EPOCH_SLOTS);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private PermissionCache() {
+    }
+
+    /**
+     * @return the instance of the permission cache
+     */
+    public static PermissionCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param command the command
+     * @param member  the member
+     * @return whether {@code member} may invoke {@code command}
+     */
+    AuthorizationResult check(Command command, Member member) {
+        long guildId = member.getGuild().getIdLong();
+        long memberId = member.getUser().getIdLong();
+        int version = command.getRoleRulesVersion();
+        int memberSlot = slot(mix(guildId, memberId), EPOCH_SLOTS);
+        int guildSlot = slot(mix(guildId, 0), EPOCH_SLOTS);
+        // Epochs are read before deciding, so a role changed meanwhile makes the decision stale
+        long memberEpoch = memberEpochs.get(memberSlot);
+        long guildEpoch = guildEpochs.get(guildSlot);
+
+        int decisionSlot = slot(mix(guildId, memberId) ^ System.identityHashCode(command), DECISION_SLOTS);
+        Decision decision = decisions.get(decisionSlot);
+        if (decision != null && decision.matches(guildId, memberId, command, version, memberEpoch, guildEpoch)) {
+            hits.increment();
+            return decision.result;
+        }
+
+        misses.increment();
+        AuthorizationResult result = command.evaluateRolePermission(member);
+        decisions.set(decisionSlot, new Decision(guildId, memberId, command, version, memberEpoch, guildEpoch, result));
+        return result;
+    }
+
+    private static long mix(long guildId, long memberId) {
+        long h = guildId * 0x9E3779B97F4A7C15L + memberId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        return h ^ (h >>> 33);
+    }
+
+    private static int slot(long hash, int slots) {
+        return (int) hash & (slots - 1);
+    }
+
+    @Override
+    public void onGuildMemberRoleAdd(GuildMemberRoleAddEvent event) {
+        invalidateMember(event.getGuild().getIdLong(), event.getUser().getIdLong());
+    }
+
+    @Override
+    public void onGuildMemberRoleRemove(GuildMemberRoleRemoveEvent event) {
+        invalidateMember(event.getGuild().getIdLong(), event.getUser().getIdLong());
+    }
+
+    @Override
+    public void onGuildMemberLeave(GuildMemberLeaveEvent event) {
+        invalidateMember(event.getGuild().getIdLong(), event.getUser().getIdLong());
+    }
+
+    @Override
+    public void onRoleDelete(RoleDeleteEvent event) {
+        invalidateGuild(event.getGuild().getIdLong());
+    }
+
+    @Override
+    public void onReconnect(ReconnectedEvent event) {
+        invalidateAll();
+    }
+
+    /**
+     * Ignores every decision made for a member.
+     *
+     * @param guildId  the ID of the guild
+     * @param memberId the ID of the member
+     */
+    public void invalidateMember(long guildId, long memberId) {
+        memberEpochs.incrementAndGet(slot(mix(guildId, memberId), EPOCH_SLOTS));
+        invalidations.increment();
+    }
+
+    /**
+     * Ignores every decision made for the members of a guild.
+     *
+     * @param guildId the ID of the guild
+     */
+    public void invalidateGuild(long guildId) {
+        guildEpochs.incrementAndGet(slot(mix(guildId, 0), EPOCH_SLOTS));
+        invalidations.increment();
+    }
+
+    /**
+     * Ignores every decision made.
+     */
+    public void invalidateAll() {
+        // Decisions are not cleared, since a check deciding meanwhile could store a stale one after
+        for (int i = 0; i < EPOCH_SLOTS; i++) {
+            guildEpochs.incrementAndGet(i);
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * @return the number of checks answered by the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of checks that had to be decided
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of role changes that invalidated decisions
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * @return the share of checks answered by the cache, from 0 to 1, or 0 if
+     *         nothing was checked
+     */
+    public double getHitRate() {
+        long hits = this.hits.sum();
+        long total = hits + misses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * An immutable decision, replaced as a whole in its slot.
+     */
+    private static final class Decision {
+        private final long guildId;
+        private final long memberId;
+        private final Command command;
+        private final int version;
+        private final long memberEpoch;
+        private final long guildEpoch;
+        private final AuthorizationResult result;
+
+        private Decision(long guildId, long memberId, Command command, int version, long memberEpoch,
+                long guildEpoch, AuthorizationResult result) {
+            this.guildId = guildId;
+            this.memberId = memberId;
+            this.command = command;
+            this.version = version;
+            this.memberEpoch = memberEpoch;
+            this.guildEpoch = guildEpoch;
+            this.result = result;
+        }
+
+        private boolean matches(long guildId, long memberId, Command command, int version, long memberEpoch,
+                long guildEpoch) {
+            return this.command == command && this.memberId == memberId && this.guildId == guildId
+                    && this.version == version && this.memberEpoch == memberEpoch && this.guildEpoch == guildEpoch;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.raybipse.components;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Role;
+
+/**
+ * Gives every role of a guild a dense index, so a set of roles of the guild can
+ * be stored as a bitset of {@code (roles + 63) / 64} words.
+ *
+ * An index is immutable and shared by every command. It is built from the roles
+ * of the guild the first time the guild is checked, and built again when a
+ * role created since then is found. The roles of each command are compiled
+ * against an index and kept by it, so they are dropped along with the index
+ * they were compiled from.
+ *
+ * @author RayBipse
+ */
+final class RoleIndex {
+
+    private static final Map<Long, RoleIndex> indexes = new ConcurrentHashMap<>();
+
+    private final Map<Command, RoleRules> rules = new ConcurrentHashMap<>();
+
+    private final long[] ids;
+    private final int[] indices;
+    private final int size;
+
+    private RoleIndex(List<Role> roles) {
+        int capacity = 8;
+        while (capacity < roles.size() * 2) {
+            capacity <<= 1;
+        }
+        ids = new long[capacity];
+        indices = new int[capacity];
+        int size = 0;
+        int mask = capacity - 1;
+        for (Role role : roles) {
+            long id = role.getIdLong();
+            int i = hash(id) & mask;
+            while (indices[i] != 0 && ids[i] != id) {
+                i = (i + 1) & mask;
+            }
+            if (indices[i] == 0) {
+                ids[i] = id;
+                indices[i] = ++size;
+            }
+        }
+        this.size = size;
+    }
+
+    /**
+     * @param guild the guild
+     * @return the current index of the roles of {@code guild}
+     */
+    static RoleIndex of(Guild guild) {
+        RoleIndex index = indexes.get(guild.getIdLong());
+        return index != null ? index : rebuild(guild);
+    }
+
+    /**
+     * Builds the index of the roles of {@code guild} again, after a role that is
+     * not in its current index was found.
+     *
+     * @param guild the guild
+     * @return the new index of the roles of {@code guild}
+     */
+    static RoleIndex rebuild(Guild guild) {
+        RoleIndex index = new RoleIndex(guild.getRoles());
+        indexes.put(guild.getIdLong(), index);
+        return index;
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * @param command the command
+     * @return the current roles of {@code command} compiled for this index
+     */
+    RoleRules getRules(Command command) {
+        RoleRules compiled = rules.get(command);
+        if (compiled == null || !compiled.isCurrent(command.getRoleRulesVersion())) {
+            compiled = command.compileRoleRules(this);
+            rules.put(command, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * @return the number of words of a bitset of the roles of the guild
+     */
+    int words() {
+        return (size + 63) >>> 6;
+    }
+
+    /**
+     * @param roleId the ID of a role
+     * @return the index of the role, or -1 if it is not in the index
+     */
+    int indexOf(long roleId) {
+        int mask = ids.length - 1;
+        for (int i = hash(roleId) & mask;; i = (i + 1) & mask) {
+            if (indices[i] == 0) {
+                return -1;
+            }
+            if (ids[i] == roleId) {
+                return indices[i] - 1;
+            }
+        }
+    }
+
+    /**
+     * @param roles the roles to be set
+     * @param bits  receives the bits of {@code roles}. It must have
+     *              {@link #words()} words, and is cleared first.
+     * @return false if a role is not in the index
+     */
+    boolean fill(List<Role> roles, long[] bits) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = 0;
+        }
+        for (int i = 0; i < roles.size(); i++) {
+            int index = indexOf(roles.get(i).getIdLong());
+            if (index == -1) {
+                return false;
+            }
+            bits[index >>> 6] |= 1L << index;
+        }
+        return true;
+    }
+}
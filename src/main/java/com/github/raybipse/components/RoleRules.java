@@ -0,0 +1,85 @@
+package com.github.raybipse.components;
+
+/**
+ * The required and blacklisted roles of a {@link Command}, compiled into
+ * bitsets of a {@link RoleIndex}, so checking a member takes a few word-wise
+ * operations however many roles the guild has.
+ *
+ * @author RayBipse
+ */
+final class RoleRules {
+
+    private final int version;
+    private final long[] required;
+    private final long[] blacklisted;
+    private final boolean satisfiable;
+
+    private RoleRules(int version, long[] required, long[] blacklisted, boolean satisfiable) {
+        this.version = version;
+        this.required = required;
+        this.blacklisted = blacklisted;
+        this.satisfiable = satisfiable;
+    }
+
+    /**
+     * A required role that is not in the index, such as a role of another guild,
+     * cannot be given to a member, so no member is allowed. A blacklisted role
+     * that is not in the index is left out.
+     *
+     * @param index       the index of the roles of the guild
+     * @param version     the version of the roles of the command
+     * @param required    the IDs of the required roles
+     * @param blacklisted the IDs of the blacklisted roles
+     * @return the compiled roles
+     */
+    static RoleRules compile(RoleIndex index, int version, long[] required, long[] blacklisted) {
+        long[] requiredBits = new long[index.words()];
+        long[] blacklistedBits = new long[index.words()];
+        boolean satisfiable = true;
+        for (long id : required) {
+            int i = index.indexOf(id);
+            if (i == -1) {
+                satisfiable = false;
+            } else {
+                requiredBits[i >>> 6] |= 1L << i;
+            }
+        }
+        for (long id : blacklisted) {
+            int i = index.indexOf(id);
+            if (i != -1) {
+                blacklistedBits[i >>> 6] |= 1L << i;
+            }
+        }
+        return new RoleRules(version, requiredBits, blacklistedBits, satisfiable);
+    }
+
+    /**
+     * @param version the current version of the roles of the command
+     * @return true if the roles were compiled from {@code version}
+     */
+    boolean isCurrent(int version) {
+        return this.version == version;
+    }
+
+    /**
+     * @param memberRoles the roles of a member, filled by the index the roles were
+     *                    compiled from
+     * @return {@link AuthorizationResult#ALLOWED} if the member has every required
+     *         role and no blacklisted role, or the reason the member is denied
+     */
+    AuthorizationResult evaluate(long[] memberRoles) {
+        if (!satisfiable) {
+            return AuthorizationResult.MISSING_REQUIRED_ROLE;
+        }
+        AuthorizationResult result = AuthorizationResult.ALLOWED;
+        for (int i = 0; i < memberRoles.length; i++) {
+            if ((memberRoles[i] & blacklisted[i]) != 0) {
+                return AuthorizationResult.BLACKLISTED_ROLE;
+            }
+            if ((required[i] & ~memberRoles[i]) != 0) {
+                result = AuthorizationResult.MISSING_REQUIRED_ROLE;
+            }
+        }
+        return result;
+    }
+}
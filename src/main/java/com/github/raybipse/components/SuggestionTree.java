@@ -0,0 +1,160 @@
+package com.github.raybipse.components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A BK-tree of the invocations of the registered commands, used to suggest an
+ * invocation close to one that invokes nothing.
+ *
+ * Every child of a node is kept at its edit distance from the node. A query
+ * within a distance {@code k} of the text only visits the children whose
+ * distance is within {@code k} of the distance between the text and the node,
+ * so it skips most of the tree instead of comparing the text with every
+ * invocation. Invocations are compared in lower case.
+ *
+ * @author RayBipse
+ */
+final class SuggestionTree {
+
+    private final Node root;
+    private final int maxWords;
+
+    /**
+     * @param invocations the invocations after the bot prefix, and the commands
+     *                    they invoke
+     */
+    SuggestionTree(Map<String, Command> invocations) {
+        Node root = null;
+        int maxWords = 0;
+        for (String invocation : invocations.keySet()) {
+            Node node = new Node(invocation, CommandGroup.foldCase(invocation));
+            if (root == null) {
+                root = node;
+            } else {
+                root.add(node);
+            }
+            maxWords = Math.max(maxWords, countWords(invocation));
+        }
+        this.root = root;
+        this.maxWords = maxWords;
+    }
+
+    private static int countWords(String invocation) {
+        int words = 1;
+        for (int i = 0; i < invocation.length(); i++) {
+            if (invocation.charAt(i) == ' ') {
+                words++;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @return the most number of words in an invocation
+     */
+    int getMaxWords() {
+        return maxWords;
+    }
+
+    /**
+     * @param text        the text to be compared
+     * @param maxDistance the greatest edit distance of a suggestion
+     * @param out         receives the invocations within {@code maxDistance} of
+     *                    {@code text}, and their distances
+     */
+    void search(String text, int maxDistance, Map<String, Integer> out) {
+        if (root == null) {
+            return;
+        }
+        String folded = CommandGroup.foldCase(text);
+        int[] previous = new int[folded.length() + 1];
+        int[] current = new int[folded.length() + 1];
+        List<Node> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.remove(pending.size() - 1);
+            int distance = distance(folded, node.key, previous, current);
+            if (distance <= maxDistance) {
+                out.merge(node.invocation, distance, Math::min);
+            }
+            for (int i = 0; i < node.size; i++) {
+                if (Math.abs(node.distances[i] - distance) <= maxDistance) {
+                    pending.add(node.children[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the Levenshtein distance between {@code a} and {@code b}, computed
+     *         with two rows of {@code a.length() + 1} entries
+     */
+    private static int distance(String a, String b, int[] previous, int[] current) {
+        for (int i = 0; i <= a.length(); i++) {
+            previous[i] = i;
+        }
+        for (int j = 1; j <= b.length(); j++) {
+            current[0] = j;
+            char c = b.charAt(j - 1);
+            for (int i = 1; i <= a.length(); i++) {
+                int cost = a.charAt(i - 1) == c ? 0 : 1;
+                current[i] = Math.min(Math.min(current[i - 1], previous[i]) + 1, previous[i - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[a.length()];
+    }
+
+    private static final class Node {
+        private final String invocation;
+        private final String key;
+        private int[] distances = new int[0];
+        private Node[] children = new Node[0];
+        private int size;
+
+        private Node(String invocation, String key) {
+            this.invocation = invocation;
+            this.key = key;
+        }
+
+        private void add(Node node) {
+            int[] previous = new int[node.key.length() + 1];
+            int[] current = new int[node.key.length() + 1];
+            Node parent = this;
+            while (true) {
+                int distance = distance(node.key, parent.key, previous, current);
+                Node child = parent.getChild(distance);
+                if (child == null) {
+                    parent.addChild(distance, node);
+                    return;
+                }
+                parent = child;
+            }
+        }
+
+        private Node getChild(int distance) {
+            for (int i = 0; i < size; i++) {
+                if (distances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private void addChild(int distance, Node node) {
+            if (size == children.length) {
+                int capacity = Math.max(4, size * 2);
+                distances = Arrays.copyOf(distances, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            distances[size] = distance;
+            children[size] = node;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.github.raybipse.components;
+
+/**
+ * The number of arguments a command accepts, compiled once from the string
+ * returned by {@link Command#getSyntax()}.
+ *
+ * <ul>
+ * <li>{@code <name>} is a required argument.</li>
+ * <li>{@code [name]} is an optional argument. The brackets may also hold
+ * several arguments, such as {@code [<user> [reason]]}, which are optional
+ * together.</li>
+ * <li>{@code ...} after a name, or after an argument, lets it be repeated, so
+ * {@code [reason...]} accepts any number of arguments and {@code <user...>}
+ * accepts at least one.</li>
+ * </ul>
+ *
+ * A syntax with anything else in it, such as a literal word or an unbalanced
+ * bracket, cannot be compiled and accepts any number of arguments.
+ *
+ * @author RayBipse
+ */
+final class SyntaxMatcher {
+
+    /** The result of {@code match} if the arguments match. */
+    static final int MATCHED = 0;
+    /** The result of {@code match} if arguments are missing. */
+    static final int TOO_FEW = -1;
+    /** The result of {@code match} if there are extra arguments. */
+    static final int TOO_MANY = 1;
+
+    static final SyntaxMatcher UNCONSTRAINED = new SyntaxMatcher(0, Integer.MAX_VALUE);
+
+    private static final String REPEAT = "...";
+
+    private final int min;
+    private final int max;
+
+    private SyntaxMatcher(int min, int max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * @param syntax the syntax of a command
+     * @return the matcher of {@code syntax}, or {@link #UNCONSTRAINED} if it
+     *         cannot be compiled
+     */
+    static SyntaxMatcher compile(String syntax) {
+        long range = parseSequence(syntax, 0, syntax.length());
+        if (range == -1) {
+            return UNCONSTRAINED;
+        }
+        return new SyntaxMatcher((int) (range >>> 32), (int) range);
+    }
+
+    /**
+     * Parses the elements between {@code from} and {@code to}.
+     *
+     * @return the minimum number of arguments in the high half and the maximum in
+     *         the low half, or -1 if the syntax cannot be compiled
+     */
+    private static long parseSequence(String syntax, int from, int to) {
+        int min = 0;
+        int max = 0;
+        int i = from;
+        while (true) {
+            while (i < to && Character.isWhitespace(syntax.charAt(i))) {
+                i++;
+            }
+            if (i == to) {
+                return pack(min, max);
+            }
+
+            char open = syntax.charAt(i);
+            if (open != '<' && open != '[') {
+                return -1;
+            }
+            int close = findClose(syntax, i, to);
+            if (close == -1) {
+                return -1;
+            }
+
+            int elementMin;
+            int elementMax;
+            if (open == '<') {
+                if (syntax.lastIndexOf('<', close - 1) != i) {
+                    return -1;
+                }
+                elementMin = 1;
+                elementMax = 1;
+            } else if (containsBracket(syntax, i + 1, close)) {
+                long inner = parseSequence(syntax, i + 1, close);
+                if (inner == -1) {
+                    return -1;
+                }
+                elementMin = 0;
+                elementMax = (int) inner;
+            } else {
+                elementMin = 0;
+                elementMax = 1;
+            }
+            if (syntax.startsWith(REPEAT, close - REPEAT.length()) && close - REPEAT.length() > i) {
+                elementMax = Integer.MAX_VALUE;
+            }
+            i = close + 1;
+            if (syntax.startsWith(REPEAT, i)) {
+                elementMax = Integer.MAX_VALUE;
+                i += REPEAT.length();
+            }
+
+            min += elementMin;
+            max = elementMax == Integer.MAX_VALUE || max == Integer.MAX_VALUE ? Integer.MAX_VALUE
+                    : max + elementMax;
+        }
+    }
+
+    /**
+     * @return the index of the bracket closing the one at {@code open}, or -1 if
+     *         it is not closed
+     */
+    private static int findClose(String syntax, int open, int to) {
+        int depth = 0;
+        for (int i = open; i < to; i++) {
+            char c = syntax.charAt(i);
+            if (c == '<' || c == '[') {
+                depth++;
+            } else if (c == '>' || c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return c == (syntax.charAt(open) == '<' ? '>' : ']') ? i : -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean containsBracket(String syntax, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = syntax.charAt(i);
+            if (c == '<' || c == '[') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long pack(int min, int max) {
+        return ((long) min << 32) | (max & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Counts the arguments of the range of {@code input} from {@code from} to
+     * {@code to}, reading at most one more than the syntax accepts.
+     *
+     * @param input    the input
+     * @param from     the index the range starts at, inclusive
+     * @param to       the index the range ends at, exclusive
+     * @param flags    the flags that are not counted as arguments
+     * @param checkMax true to also check that there are not more arguments than
+     *                 the syntax accepts
+     * @return {@link #MATCHED}, {@link #TOO_FEW} or {@link #TOO_MANY}
+     */
+    int match(CharSequence input, int from, int to, FlagTable flags, boolean checkMax) {
+        int max = checkMax ? this.max : Integer.MAX_VALUE;
+        if (min == 0 && max == Integer.MAX_VALUE) {
+            return MATCHED;
+        }
+        ParseScratch scratch = ParseScratch.get();
+        int[] token = scratch.token;
+        token[3] = 0;
+        int limit = max == Integer.MAX_VALUE ? min : max + 1;
+        int count = 0;
+        int i = from;
+        while (count < limit && (i = flags.nextPositional(input, i, to, token, scratch.value)) != -1) {
+            count++;
+        }
+        if (count < min) {
+            return TOO_FEW;
+        }
+        return count > max ? TOO_MANY : MATCHED;
+    }
+}
@@ -2,6 +2,8 @@ package com.github.raybipse.core;
 
 import java.awt.Color;
 
+import com.github.raybipse.components.CommandDispatcher;
+import com.github.raybipse.internal.ConcurrentLongMap;
 import com.github.raybipse.internal.ErrorMessages;
 
 import net.dv8tion.jda.api.JDA;
@@ -19,10 +21,19 @@ import net.dv8tion.jda.api.JDA;
  */
 public class BotConfiguration {
     private static String botPrefix = "&";
+    private static final ConcurrentLongMap<String> guildPrefixes = new ConcurrentLongMap<>();
     private static Color errorColor = new Color(237, 92, 90);
     private static Color successColor = new Color(93, 217, 107);
     private static Color promptColor = new Color(97, 189, 255);
 
+    private static boolean commandDispatcherEnabled = true;
+    private static boolean mentionPrefixEnabled = true;
+    private static boolean commandSuggestionsEnabled = false;
+
+    private static volatile long denialReplyWindow = 10_000;
+    private static volatile int denialReplyBudget = 5;
+    private static volatile long denialReplyBudgetPeriod = 5_000;
+
     private static JDA jda;
 
     private BotConfiguration() {
@@ -72,6 +83,202 @@ public class BotConfiguration {
             throw new IllegalArgumentException("\"botPrefix\" cannot be null.");
         }
         BotConfiguration.botPrefix = botPrefix;
+        CommandDispatcher.getInstance().refreshBotPrefix();
+    }
+
+    /**
+     * Returns the prefix set for a guild with {@link #setGuildPrefix(long, String)},
+     * or the bot prefix if the guild has none. The lookup does not lock, so it is
+     * safe to call on every message.
+     * 
+     * @param guildId the ID of the guild
+     * @return the prefix used to invoke the bot in the guild
+     */
+    public static String getBotPrefix(long guildId) {
+        String prefix = guildPrefixes.get(guildId);
+        return prefix == null ? botPrefix : prefix;
+    }
+
+    /**
+     * Overrides the bot prefix in a single guild. Only messages routed by the
+     * {@link com.github.raybipse.components.CommandDispatcher CommandDispatcher}
+     * use guild prefixes.
+     * 
+     * @param guildId the ID of the guild
+     * @param prefix  the prefix used to invoke the bot in the guild
+     */
+    public static void setGuildPrefix(long guildId, String prefix) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("\"prefix\" cannot be null.");
+        }
+        guildPrefixes.put(guildId, prefix);
+    }
+
+    /**
+     * Removes the prefix override of a guild, so the guild falls back to the bot
+     * prefix.
+     * 
+     * @param guildId the ID of the guild
+     */
+    public static void removeGuildPrefix(long guildId) {
+        guildPrefixes.remove(guildId);
+    }
+
+    /**
+     * When enabled, commands are routed through a single
+     * {@link com.github.raybipse.components.CommandDispatcher CommandDispatcher}
+     * that is registered to JDA once. When disabled, every
+     * {@link com.github.raybipse.components.Command Command} registers itself as
+     * its own listener. A command that overrides another callback of
+     * {@link net.dv8tion.jda.api.hooks.ListenerAdapter ListenerAdapter}, such as
+     * {@code onMessageReactionAdd}, receives every event but received messages
+     * either way. Enabled by default.
+     * 
+     * @return true if commands are routed through the command dispatcher
+     */
+    public static boolean isCommandDispatcherEnabled() {
+        return commandDispatcherEnabled;
+    }
+
+    /**
+     * When enabled, commands are routed through a single
+     * {@link com.github.raybipse.components.CommandDispatcher CommandDispatcher}
+     * that is registered to JDA once. When disabled, every
+     * {@link com.github.raybipse.components.Command Command} registers itself as
+     * its own listener. A command that overrides another callback of
+     * {@link net.dv8tion.jda.api.hooks.ListenerAdapter ListenerAdapter}, such as
+     * {@code onMessageReactionAdd}, receives every event but received messages
+     * either way. This must be set before any command is initialized.
+     * 
+     * @param commandDispatcherEnabled true to route commands through the command
+     *                                 dispatcher
+     */
+    public static void setCommandDispatcherEnabled(boolean commandDispatcherEnabled) {
+        BotConfiguration.commandDispatcherEnabled = commandDispatcherEnabled;
+    }
+
+    /**
+     * When enabled, mentioning the bot (e.g. "@Bot help") can be used in place of
+     * the bot prefix. Only messages routed by the
+     * {@link com.github.raybipse.components.CommandDispatcher CommandDispatcher}
+     * can be invoked by a mention. Enabled by default.
+     * 
+     * @return true if the bot can be invoked by mentioning it
+     */
+    public static boolean isMentionPrefixEnabled() {
+        return mentionPrefixEnabled;
+    }
+
+    /**
+     * When enabled, mentioning the bot (e.g. "@Bot help") can be used in place of
+     * the bot prefix. Only messages routed by the
+     * {@link com.github.raybipse.components.CommandDispatcher CommandDispatcher}
+     * can be invoked by a mention.
+     * 
+     * @param mentionPrefixEnabled true to allow invoking the bot by mentioning it
+     */
+    public static void setMentionPrefixEnabled(boolean mentionPrefixEnabled) {
+        BotConfiguration.mentionPrefixEnabled = mentionPrefixEnabled;
+    }
+
+    /**
+     * When enabled, a message that starts with the bot prefix but invokes no
+     * command is answered with the closest commands, if there are any. Only
+     * messages routed by the
+     * {@link com.github.raybipse.components.CommandDispatcher CommandDispatcher}
+     * are answered. Disabled by default.
+     * 
+     * @return true if unknown commands are answered with suggestions
+     */
+    public static boolean isCommandSuggestionsEnabled() {
+        return commandSuggestionsEnabled;
+    }
+
+    /**
+     * When enabled, a message that starts with the bot prefix but invokes no
+     * command is answered with the closest commands, if there are any. Only
+     * messages routed by the
+     * {@link com.github.raybipse.components.CommandDispatcher CommandDispatcher}
+     * are answered.
+     * 
+     * @param commandSuggestionsEnabled true to answer unknown commands with
+     *                                  suggestions
+     */
+    public static void setCommandSuggestionsEnabled(boolean commandSuggestionsEnabled) {
+        BotConfiguration.commandSuggestionsEnabled = commandSuggestionsEnabled;
+    }
+
+    /**
+     * A user who was denied a command is not answered again for the same command
+     * within this window. 10 seconds by default.
+     * 
+     * @return the window in milliseconds, or 0 if every denial is answered
+     */
+    public static long getDenialReplyWindow() {
+        return denialReplyWindow;
+    }
+
+    /**
+     * A user who was denied a command is not answered again for the same command
+     * within this window. Only the default consumer of
+     * {@link com.github.raybipse.components.Command#getOnRolePermissionFail()
+     * Command.getOnRolePermissionFail()} is throttled.
+     * 
+     * @param denialReplyWindow the window in milliseconds, or 0 to answer every
+     *                          denial
+     */
+    public static void setDenialReplyWindow(long denialReplyWindow) {
+        if (denialReplyWindow < 0) {
+            throw new IllegalArgumentException("\"denialReplyWindow\" cannot be negative.");
+        }
+        BotConfiguration.denialReplyWindow = denialReplyWindow;
+    }
+
+    /**
+     * The number of denials answered in a channel within the period of
+     * {@link #getDenialReplyBudgetPeriod()}. 5 by default.
+     * 
+     * @return the number of answers, or 0 if a channel has no budget
+     */
+    public static int getDenialReplyBudget() {
+        return denialReplyBudget;
+    }
+
+    /**
+     * The number of denials answered in a channel within the period of
+     * {@link #getDenialReplyBudgetPeriod()}. Only the default consumer of
+     * {@link com.github.raybipse.components.Command#getOnRolePermissionFail()
+     * Command.getOnRolePermissionFail()} is throttled.
+     * 
+     * @param denialReplyBudget the number of answers, or 0 for no budget
+     */
+    public static void setDenialReplyBudget(int denialReplyBudget) {
+        if (denialReplyBudget < 0) {
+            throw new IllegalArgumentException("\"denialReplyBudget\" cannot be negative.");
+        }
+        BotConfiguration.denialReplyBudget = denialReplyBudget;
+    }
+
+    /**
+     * The period over which the denial reply budget of a channel is counted. 5
+     * seconds by default.
+     * 
+     * @return the period in milliseconds
+     */
+    public static long getDenialReplyBudgetPeriod() {
+        return denialReplyBudgetPeriod;
+    }
+
+    /**
+     * The period over which the denial reply budget of a channel is counted.
+     * 
+     * @param denialReplyBudgetPeriod the period in milliseconds
+     */
+    public static void setDenialReplyBudgetPeriod(long denialReplyBudgetPeriod) {
+        if (denialReplyBudgetPeriod <= 0) {
+            throw new IllegalArgumentException("\"denialReplyBudgetPeriod\" must be positive.");
+        }
+        BotConfiguration.denialReplyBudgetPeriod = denialReplyBudgetPeriod;
     }
 
     /**
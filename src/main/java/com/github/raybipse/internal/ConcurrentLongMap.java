@@ -0,0 +1,192 @@
+package com.github.raybipse.internal;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A map from primitive {@code long} keys, such as snowflake IDs, to non-null
+ * values.
+ *
+ * Reads never lock. The map is an open-addressing table of immutable entries,
+ * each published through its own volatile slot, so a reader always sees a
+ * complete entry and is never blocked by writers. Writers lock, and replace
+ * only the slot they change. A removed entry leaves a marker in its slot, so a
+ * reader probing past it still finds the keys that follow. The table is only
+ * copied when it grows, or when markers fill half of it, so an update takes
+ * amortized constant time however many mappings there are.
+ *
+ * @param <V> the type of the values
+ *
+ * @author RayBipse
+ */
+public final class ConcurrentLongMap<V> {
+
+    private static final int MINIMUM_CAPACITY = 8;
+    private static final Entry REMOVED = new Entry(0, null);
+
+    private volatile AtomicReferenceArray<Entry> table = new AtomicReferenceArray<>(MINIMUM_CAPACITY);
+    private volatile int size;
+    /** The number of slots holding an entry or a marker. Only accessed while locked. */
+    private int used;
+
+    /**
+     * @param key the key
+     * @return the value mapped to {@code key}, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        AtomicReferenceArray<Entry> table = this.table;
+        int mask = table.length() - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            Entry entry = table.get(i);
+            if (entry == null) {
+                return null;
+            }
+            if (entry != REMOVED && entry.key == key) {
+                return (V) entry.value;
+            }
+        }
+    }
+
+    /**
+     * @param key   the key
+     * @param value the value to be mapped to {@code key}. The value cannot be null.
+     * @return the value previously mapped to {@code key}, or null if there was
+     *         none
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized V put(long key, V value) {
+        ErrorMessages.requireNonNullParam(value, "value");
+        AtomicReferenceArray<Entry> table = this.table;
+        int mask = table.length() - 1;
+        int removed = -1;
+        int i = hash(key) & mask;
+        for (;; i = (i + 1) & mask) {
+            Entry entry = table.get(i);
+            if (entry == null) {
+                break;
+            }
+            if (entry == REMOVED) {
+                if (removed == -1) {
+                    removed = i;
+                }
+            } else if (entry.key == key) {
+                table.set(i, new Entry(key, value));
+                return (V) entry.value;
+            }
+        }
+
+        // The key is not further along the probe, so a marker before it can be reused
+        if (removed != -1) {
+            table.set(removed, new Entry(key, value));
+        } else {
+            table.set(i, new Entry(key, value));
+            used++;
+        }
+        size++;
+        if (used * 2 > table.length()) {
+            rehash();
+        }
+        return null;
+    }
+
+    /**
+     * @param key the key
+     * @return the value previously mapped to {@code key}, or null if there was
+     *         none
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized V remove(long key) {
+        AtomicReferenceArray<Entry> table = this.table;
+        int mask = table.length() - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            Entry entry = table.get(i);
+            if (entry == null) {
+                return null;
+            }
+            if (entry != REMOVED && entry.key == key) {
+                table.set(i, REMOVED);
+                size--;
+                return (V) entry.value;
+            }
+        }
+    }
+
+    /**
+     * Removes every mapping.
+     */
+    public synchronized void clear() {
+        table = new AtomicReferenceArray<>(MINIMUM_CAPACITY);
+        size = 0;
+        used = 0;
+    }
+
+    /**
+     * @return the number of mappings
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the keys of every mapping, in no particular order
+     */
+    public long[] keys() {
+        AtomicReferenceArray<Entry> table = this.table;
+        long[] keys = new long[table.length()];
+        int count = 0;
+        for (int i = 0; i < table.length(); i++) {
+            Entry entry = table.get(i);
+            if (entry != null && entry != REMOVED) {
+                keys[count++] = entry.key;
+            }
+        }
+        return Arrays.copyOf(keys, count);
+    }
+
+    /**
+     * Copies every entry into a new table without markers, large enough to keep it
+     * at most half full, and publishes it.
+     */
+    private void rehash() {
+        AtomicReferenceArray<Entry> current = table;
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < size * 4) {
+            capacity <<= 1;
+        }
+        AtomicReferenceArray<Entry> updated = new AtomicReferenceArray<>(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < current.length(); i++) {
+            Entry entry = current.get(i);
+            if (entry != null && entry != REMOVED) {
+                int j = hash(entry.key) & mask;
+                while (updated.get(j) != null) {
+                    j = (j + 1) & mask;
+                }
+                updated.set(j, entry);
+            }
+        }
+        used = size;
+        table = updated;
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * A mapping, replaced as a whole in its slot.
+     */
+    private static final class Entry {
+        private final long key;
+        private final Object value;
+
+        private Entry(long key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
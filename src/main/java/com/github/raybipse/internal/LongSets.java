@@ -0,0 +1,51 @@
+package com.github.raybipse.internal;
+
+import java.util.Arrays;
+
+/**
+ * Operations on sets of primitive {@code long} values, such as snowflake IDs,
+ * stored as sorted arrays without duplicates.
+ *
+ * A set is never modified. Adding values returns a new array, so a set can be
+ * published through a volatile field and read without locking.
+ *
+ * @author RayBipse
+ */
+public final class LongSets {
+
+    /** The empty set. */
+    public static final long[] EMPTY = new long[0];
+
+    private LongSets() {
+    }
+
+    /**
+     * @param set    a sorted array without duplicates
+     * @param values the values to be added, in any order
+     * @return a sorted array without duplicates of the values of {@code set} and
+     *         {@code values}, or {@code set} itself if every value is in it
+     */
+    public static long[] union(long[] set, long... values) {
+        ErrorMessages.requireNonNullParam(set, "set");
+        ErrorMessages.requireNonNullParam(values, "values");
+        long[] added = values.clone();
+        Arrays.sort(added);
+
+        long[] union = new long[set.length + added.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < set.length || j < added.length) {
+            long next;
+            if (j == added.length || (i < set.length && set[i] <= added[j])) {
+                next = set[i++];
+            } else {
+                next = added[j++];
+            }
+            if (size == 0 || union[size - 1] != next) {
+                union[size++] = next;
+            }
+        }
+        return size == set.length ? set : Arrays.copyOf(union, size);
+    }
+}
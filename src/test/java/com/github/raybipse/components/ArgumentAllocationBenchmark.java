@@ -0,0 +1,120 @@
+package com.github.raybipse.components;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+
+import com.github.raybipse.core.BotConfiguration;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+
+/**
+ * Measures the bytes allocated per message by the parsing done on the dispatch
+ * path: syntax matching, {@link Arguments#tokenize(CharSequence, int, int)} and
+ * the arguments and flags of a {@link CommandInput}. This is not run as a test.
+ * Run it with {@code java -cp target/classes:target/test-classes:<JDA>
+ * com.github.raybipse.components.ArgumentAllocationBenchmark}.
+ *
+ * @author RayBipse
+ */
+public final class ArgumentAllocationBenchmark {
+
+    private static final String PREFIX = "&ban ";
+    private static final String INPUT = "<@123456789012345678> --limit=50 -v spamming \"in general\" again";
+    private static final String CONTENT = PREFIX + INPUT;
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private static final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+            .getThreadMXBean();
+
+    private static final class BanCommand extends Command {
+        @Override
+        public String getName() {
+            return "Ban";
+        }
+
+        @Override
+        public String getPrefix() {
+            return "ban";
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public String[] getExamples() {
+            return null;
+        }
+
+        @Override
+        public String getSyntax() {
+            return "<user> [reason...]";
+        }
+
+        @Override
+        public Flag[] getFlags() {
+            return new Flag[] { new Flag("limit", 'l', true), new Flag("verbose", 'v', false) };
+        }
+
+        @Override
+        public CommandGroup getParent() {
+            return null;
+        }
+    }
+
+    private interface Operation {
+        long run();
+    }
+
+    private ArgumentAllocationBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        TestJda.install();
+        BanCommand command = new BanCommand();
+        try {
+            SyntaxMatcher matcher = SyntaxMatcher.compile(command.getSyntax());
+            FlagTable flags = command.getFlagTable();
+            int from = PREFIX.length();
+            int to = CONTENT.length();
+            Message message = (Message) Proxy.newProxyInstance(Message.class.getClassLoader(),
+                    new Class<?>[] { Message.class }, (proxy, method, arguments) -> {
+                        return method.getReturnType() == long.class ? 0L : null;
+                    });
+            MessageReceivedEvent event = new MessageReceivedEvent(BotConfiguration.getJDA(), 0, message);
+
+            long sink = 0;
+            sink += report("syntax matching:", () -> matcher.match(CONTENT, from, to, flags, false));
+            sink += report("tokenize:       ", () -> Arguments.tokenize(CONTENT, from, to, flags).size());
+            sink += report("command input:  ", () -> {
+                CommandInput input = new CommandInput(command, event, CONTENT, 1, false, from - 1);
+                return input.getArguments().size() + (input.getFlags().has("verbose") ? 1 : 0);
+            });
+            System.out.println("(" + sink + ")");
+        } finally {
+            CommandDispatcher.getInstance().unregister(command);
+        }
+    }
+
+    /**
+     * Runs {@code operation} until it is compiled, then prints the bytes it
+     * allocates on average over {@link #ITERATIONS} runs.
+     */
+    private static long report(String label, Operation operation) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += operation.run();
+        }
+        long thread = Thread.currentThread().getId();
+        long start = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += operation.run();
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - start;
+        System.out.printf("%s %.1f bytes/op%n", label, (double) allocated / ITERATIONS);
+        return sink;
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.raybipse.components;
+
+import java.util.ArrayList;
+
+/**
+ * Compares the time taken to split inputs by {@link Command#splitUserInput(String)}
+ * with the two-pass split it replaced. This is not run as a test. Run it with
+ * {@code java -cp target/classes:target/test-classes
+ * com.github.raybipse.components.ArgumentLexerBenchmark}.
+ *
+ * @author RayBipse
+ */
+public final class ArgumentLexerBenchmark {
+
+    private static final String[] INPUTS = { "ban 123456789012345678 spamming in general",
+            "\"a quoted argument\" and 'another one' with some words after it",
+            "role add <@123456789012345678> <@&234567890123456789> \\\"escaped\\\" \"x y\"",
+            "one two three four five six seven eight nine ten eleven twelve thirteen fourteen" };
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+    private static final int ITERATIONS = 200_000;
+
+    private ArgumentLexerBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sink += runPrevious() + runLexer();
+        }
+        long previous = Long.MAX_VALUE;
+        long lexer = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            sink += runPrevious();
+            previous = Math.min(previous, System.nanoTime() - start);
+            start = System.nanoTime();
+            sink += runLexer();
+            lexer = Math.min(lexer, System.nanoTime() - start);
+        }
+        long operations = (long) ITERATIONS * INPUTS.length;
+        System.out.printf("previous split: %.1f ns/op%n", (double) previous / operations);
+        System.out.printf("lexer split:    %.1f ns/op%n", (double) lexer / operations);
+        System.out.printf("speedup:        %.2fx%n", (double) previous / lexer);
+        System.out.println("(" + sink + ")");
+    }
+
+    private static long runPrevious() {
+        long arguments = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            arguments += previousSplit(INPUTS[i % INPUTS.length]).length;
+        }
+        return arguments;
+    }
+
+    private static long runLexer() {
+        long arguments = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            arguments += Command.splitUserInput(INPUTS[i % INPUTS.length]).length;
+        }
+        return arguments;
+    }
+
+    /**
+     * The split used before {@link ArgumentLexer}: one pass to split the input on
+     * whitespace outside of quotes, and another to take the quotation marks and
+     * backslashes out of every argument.
+     */
+    private static String[] previousSplit(String input) {
+        input = input.trim();
+        ArrayList<String> output = new ArrayList<>();
+        boolean inQuote = false;
+
+        int beginIndex = 0;
+        char[] charArray = input.toCharArray();
+        for (int i = 0; i < charArray.length; i++) {
+            char c = charArray[i];
+            if (ArgumentLexer.isCharQuotationMark(c) && (i == 0 || charArray[i - 1] != '\\')) {
+                inQuote = !inQuote;
+            }
+
+            if ((Character.isWhitespace(c) && !inQuote) || i == charArray.length - 1) {
+                output.add(input.substring(beginIndex, i + 1).trim());
+                beginIndex = i + 1;
+            }
+        }
+
+        for (int i = 0; i < output.size(); i++) {
+            char[] charArr = output.get(i).toCharArray();
+            StringBuilder str = new StringBuilder();
+            for (int k = 0; k < charArr.length; k++) {
+                if (!((k != charArr.length - 1
+                        && ((ArgumentLexer.isCharQuotationMark(charArr[k + 1]) && charArr[k] == '\\')))
+                        || (ArgumentLexer.isCharQuotationMark(charArr[k]) && (k == 0 || charArr[k - 1] != '\\')))) {
+                    str.append(charArr[k]);
+                }
+            }
+            output.set(i, str.toString());
+        }
+        return output.toArray(new String[output.size()]);
+    }
+}
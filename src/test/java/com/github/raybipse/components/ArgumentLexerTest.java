@@ -0,0 +1,172 @@
+package com.github.raybipse.components;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ArgumentLexer} through {@link Command#splitUserInput(String)},
+ * {@link Arguments} and {@link ArgumentCursor}, against the rules documented on
+ * {@link ArgumentLexer}.
+ *
+ * @author RayBipse
+ */
+public class ArgumentLexerTest {
+
+    private static final char[] ALPHABET = { 'a', 'b', ' ', '\t', '\n', '"', '\'', '\\' };
+    private static final int RANDOM_INPUTS = 200_000;
+
+    private static String[] split(String input) {
+        return Command.splitUserInput(input);
+    }
+
+    @Test
+    public void splitsDocumentedExamples() {
+        assertArrayEquals(new String[] { "ab", "cde", "fgh ijk" }, split("ab cde \"fgh ijk\""));
+        assertArrayEquals(new String[] { "\"a", "b\"" }, split("\\\"a b\\\""));
+        assertArrayEquals(new String[] { "\\a b" }, split("\\\\\"a b\""));
+    }
+
+    @Test
+    public void keepsBackslashBeforeQuotationMark() {
+        assertArrayEquals(new String[] { "a\\", "b c" }, split("a\\\\\"\" \"b c\""));
+        assertArrayEquals(new String[] { "\\b c" }, split("\\\\'b c'"));
+    }
+
+    @Test
+    public void closesQuoteWithSameKindOnly() {
+        assertArrayEquals(new String[] { "a", "b\" c", "d" }, split("a 'b\" c' d"));
+        assertArrayEquals(new String[] { "b' c" }, split("\"b' c\""));
+        assertArrayEquals(new String[] { "it's here" }, split("\"it's here\""));
+    }
+
+    @Test
+    public void separatesConsecutiveWhitespaceOnce() {
+        assertArrayEquals(new String[] { "a", "b", "c" }, split("  a \t\n b    c  "));
+        assertArrayEquals(new String[0], split(" \t "));
+        assertArrayEquals(new String[0], split(""));
+    }
+
+    @Test
+    public void keepsTrailingBackslash() {
+        assertArrayEquals(new String[] { "a\\" }, split("a\\"));
+        assertArrayEquals(new String[] { "a", "\\" }, split("a \\"));
+        assertArrayEquals(new String[] { "a\\b" }, split("a\\b"));
+    }
+
+    @Test
+    public void splitsEmptyAndUnterminatedQuotes() {
+        assertArrayEquals(new String[] { "a", "", "b" }, split("a \"\" b"));
+        assertArrayEquals(new String[] { "ab" }, split("a\"b"));
+        assertArrayEquals(new String[] { "a b " }, split("'a b "));
+    }
+
+    @Test
+    public void matchesDocumentedRulesOnRandomInputs() {
+        Random random = new Random(12);
+        for (int i = 0; i < RANDOM_INPUTS; i++) {
+            String input = randomInput(random, ALPHABET, 16);
+            assertArrayEquals(input, reference(input), split(input));
+        }
+    }
+
+    @Test
+    public void matchesPreviousSplitWithoutQuotesOrEscapes() {
+        Random random = new Random(34);
+        char[] letters = { 'a', 'b', 'c', '1', '-', '@' };
+        for (int i = 0; i < RANDOM_INPUTS; i++) {
+            // Single spaces between words, which the previous split handled the same way
+            StringBuilder input = new StringBuilder();
+            int words = 1 + random.nextInt(6);
+            for (int w = 0; w < words; w++) {
+                if (w != 0) {
+                    input.append(' ');
+                }
+                input.append(randomInput(random, letters, 5)).append(letters[random.nextInt(letters.length)]);
+            }
+            assertArrayEquals(input.toString().split(" "), split(input.toString()));
+        }
+    }
+
+    @Test
+    public void viewsAndCursorMatchSplitOnRandomInputs() {
+        Random random = new Random(56);
+        for (int i = 0; i < RANDOM_INPUTS; i++) {
+            String body = randomInput(random, ALPHABET, 16);
+            String input = "&cmd " + body;
+            String[] expected = split(body);
+
+            Arguments arguments = Arguments.tokenize(input, 5, input.length());
+            assertEquals(body, expected.length, arguments.size());
+            ArgumentCursor cursor = new ArgumentCursor(input, 5, input.length());
+            for (int j = 0; j < expected.length; j++) {
+                assertEquals(body, expected[j], arguments.get(j).toString());
+                assertEquals(body, expected[j], arguments.getString(j));
+                assertEquals(body, expected[j], cursor.nextString());
+            }
+            assertEquals(body, false, cursor.hasNext());
+        }
+    }
+
+    private static String randomInput(Random random, char[] alphabet, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder input = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            input.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return input.toString();
+    }
+
+    /**
+     * Splits {@code input} by the documented rules, one character at a time,
+     * without sharing any code with {@link ArgumentLexer}.
+     */
+    private static String[] reference(String input) {
+        List<String> arguments = new ArrayList<>();
+        StringBuilder current = null;
+        char quote = 0;
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            if (c == '\\' && i + 1 < length && isQuotationMark(input.charAt(i + 1))) {
+                current = current == null ? new StringBuilder() : current;
+                current.append(input.charAt(++i));
+            } else if (c == '\\' && i + 2 < length && input.charAt(i + 1) == '\\'
+                    && isQuotationMark(input.charAt(i + 2))) {
+                current = current == null ? new StringBuilder() : current;
+                current.append('\\');
+                i++;
+            } else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (isQuotationMark(c)) {
+                current = current == null ? new StringBuilder() : current;
+                quote = c;
+            } else if (Character.isWhitespace(c)) {
+                if (current != null) {
+                    arguments.add(current.toString());
+                    current = null;
+                }
+            } else {
+                current = current == null ? new StringBuilder() : current;
+                current.append(c);
+            }
+        }
+        if (current != null) {
+            arguments.add(current.toString());
+        }
+        return arguments.toArray(new String[0]);
+    }
+
+    private static boolean isQuotationMark(char c) {
+        return c == '"' || c == '\'';
+    }
+}
@@ -0,0 +1,207 @@
+package com.github.raybipse.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the parsers of {@link ArgumentReader}, including the bounds of every
+ * number type.
+ *
+ * @author RayBipse
+ */
+public class ArgumentReaderTest {
+
+    private enum Action {
+        KICK, TIME_OUT
+    }
+
+    private static ArgumentReader reader(String input) {
+        return new ArgumentReader(new ArgumentCursor(input));
+    }
+
+    private static ArgumentError onlyError(ArgumentReader reader) {
+        List<ArgumentError> errors = reader.getErrors();
+        assertEquals(1, errors.size());
+        return errors.get(0);
+    }
+
+    @Test
+    public void readsIntUpToItsBounds() {
+        ArgumentReader reader = reader("2147483647 -2147483648 +12 007");
+        assertEquals(Integer.MAX_VALUE, reader.nextInt("a"));
+        assertEquals(Integer.MIN_VALUE, reader.nextInt("b"));
+        assertEquals(12, reader.nextInt("c"));
+        assertEquals(7, reader.nextInt("d"));
+        assertFalse(reader.hasErrors());
+    }
+
+    @Test
+    public void rejectsIntOutOfRange() {
+        ArgumentReader reader = reader("2147483648");
+        assertEquals(0, reader.nextInt("count"));
+        ArgumentError error = onlyError(reader);
+        assertEquals(ArgumentError.Reason.OUT_OF_RANGE, error.getReason());
+        assertEquals(ArgumentError.Type.INTEGER, error.getType());
+        assertEquals("2147483648", error.getValue());
+        assertEquals(0, error.getIndex());
+    }
+
+    @Test
+    public void readsLongUpToItsBounds() {
+        ArgumentReader reader = reader("9223372036854775807 -9223372036854775808");
+        assertEquals(Long.MAX_VALUE, reader.nextLong("a"));
+        assertEquals(Long.MIN_VALUE, reader.nextLong("b"));
+        assertFalse(reader.hasErrors());
+    }
+
+    @Test
+    public void rejectsLongOutOfRange() {
+        ArgumentReader reader = reader("9223372036854775808 -9223372036854775809 99999999999999999999999");
+        reader.nextLong("a");
+        reader.nextLong("b");
+        reader.nextLong("c");
+        assertEquals(3, reader.getErrors().size());
+        for (ArgumentError error : reader.getErrors()) {
+            assertEquals(ArgumentError.Reason.OUT_OF_RANGE, error.getReason());
+        }
+    }
+
+    @Test
+    public void rejectsMalformedNumbers() {
+        for (String input : new String[] { "-", "+", "1a", "--1", "1.5", "\"\"" }) {
+            ArgumentReader reader = reader(input);
+            assertEquals(input, 0, reader.nextLong("n"));
+            assertEquals(input, ArgumentError.Reason.INVALID, onlyError(reader).getReason());
+        }
+    }
+
+    @Test
+    public void parsesLongLikeLongParseLongOnRandomInputs() {
+        Random random = new Random(78);
+        char[] alphabet = { '0', '1', '5', '9', '-', '+', 'x' };
+        BigInteger min = BigInteger.valueOf(Long.MIN_VALUE);
+        BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = 1 + random.nextInt(22);
+            for (int j = 0; j < length; j++) {
+                input.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String text = input.toString();
+            ArgumentReader reader = reader(text);
+            long value = reader.nextLong("n");
+
+            BigInteger expected = null;
+            if (text.matches("[+-]?[0-9]+")) {
+                expected = new BigInteger(text);
+            }
+            if (expected == null) {
+                assertEquals(text, ArgumentError.Reason.INVALID, onlyError(reader).getReason());
+            } else if (expected.compareTo(min) < 0 || expected.compareTo(max) > 0) {
+                assertEquals(text, ArgumentError.Reason.OUT_OF_RANGE, onlyError(reader).getReason());
+            } else {
+                assertFalse(text, reader.hasErrors());
+                assertEquals(text, expected.longValueExact(), value);
+            }
+        }
+    }
+
+    @Test
+    public void readsSnowflakesAndMentions() {
+        ArgumentReader reader = reader("123456789012345678 <@123> <@!456> <@&789> <#1011> 9223372036854775807");
+        assertEquals(123456789012345678L, reader.nextSnowflake("id"));
+        assertEquals(123L, reader.nextUser("user"));
+        assertEquals(456L, reader.nextUser("user"));
+        assertEquals(789L, reader.nextRole("role"));
+        assertEquals(1011L, reader.nextChannel("channel"));
+        assertEquals(Long.MAX_VALUE, reader.nextSnowflake("id"));
+        assertFalse(reader.hasErrors());
+    }
+
+    @Test
+    public void rejectsInvalidSnowflakesAndMentions() {
+        ArgumentReader reader = reader("9223372036854775808 <@&1> <@1 -1");
+        reader.nextSnowflake("a");
+        reader.nextUser("b");
+        reader.nextUser("c");
+        reader.nextSnowflake("d");
+        assertEquals(4, reader.getErrors().size());
+        for (ArgumentError error : reader.getErrors()) {
+            assertEquals(ArgumentError.Reason.INVALID, error.getReason());
+        }
+    }
+
+    @Test
+    public void readsDurations() {
+        ArgumentReader reader = reader("1h30m 45 2w 1d2h3m4s5ms 250MS");
+        assertEquals(5_400_000L, reader.nextDuration("a"));
+        assertEquals(45_000L, reader.nextDuration("b"));
+        assertEquals(1_209_600_000L, reader.nextDuration("c"));
+        assertEquals(93_784_005L, reader.nextDuration("d"));
+        assertEquals(250L, reader.nextDuration("e"));
+        assertFalse(reader.hasErrors());
+    }
+
+    @Test
+    public void rejectsInvalidDurations() {
+        ArgumentReader reader = reader("1h30 h 5y 99999999999h 2147483648s");
+        reader.nextDuration("a");
+        reader.nextDuration("b");
+        reader.nextDuration("c");
+        reader.nextDuration("d");
+        reader.nextDuration("e");
+        List<ArgumentError> errors = reader.getErrors();
+        assertEquals(ArgumentError.Reason.INVALID, errors.get(0).getReason());
+        assertEquals(ArgumentError.Reason.INVALID, errors.get(1).getReason());
+        assertEquals(ArgumentError.Reason.INVALID, errors.get(2).getReason());
+        assertEquals(ArgumentError.Reason.OUT_OF_RANGE, errors.get(3).getReason());
+        assertEquals(ArgumentError.Reason.OUT_OF_RANGE, errors.get(4).getReason());
+    }
+
+    @Test
+    public void readsBooleansAndEnums() {
+        ArgumentReader reader = reader("YES off 1 maybe time-out Kick ban");
+        assertTrue(reader.nextBoolean("a"));
+        assertFalse(reader.nextBoolean("b"));
+        assertTrue(reader.nextBoolean("c"));
+        assertFalse(reader.nextBoolean("d"));
+        assertEquals(Action.TIME_OUT, reader.nextEnum("e", Action.class));
+        assertEquals(Action.KICK, reader.nextEnum("f", Action.class));
+        assertNull(reader.nextEnum("g", Action.class));
+        List<ArgumentError> errors = reader.getErrors();
+        assertEquals(2, errors.size());
+        assertEquals(3, errors.get(0).getIndex());
+        assertEquals(6, errors.get(1).getIndex());
+    }
+
+    @Test
+    public void readsQuotedArguments() {
+        ArgumentReader reader = reader("\"12\" '<@34>' \"two words\"");
+        assertEquals(12, reader.nextInt("a"));
+        assertEquals(34L, reader.nextUser("b"));
+        assertEquals("two words", reader.nextString("c"));
+        assertFalse(reader.hasErrors());
+    }
+
+    @Test
+    public void recordsMissingArguments() {
+        ArgumentReader reader = reader("5");
+        assertEquals(5, reader.nextInt("a"));
+        assertEquals(0, reader.nextInt("b"));
+        assertNull(reader.nextString("c"));
+        List<ArgumentError> errors = reader.getErrors();
+        assertEquals(2, errors.size());
+        assertEquals(ArgumentError.Reason.MISSING, errors.get(0).getReason());
+        assertEquals(1, errors.get(0).getIndex());
+        assertNull(errors.get(0).getValue());
+        assertEquals(ArgumentError.Reason.MISSING, errors.get(1).getReason());
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.raybipse.components;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests that {@link ArgumentStream} splits a stream the same way
+ * {@link Command#splitUserInput(String)} splits a string, however the stream is
+ * read into its buffer.
+ *
+ * @author RayBipse
+ */
+public class ArgumentStreamTest {
+
+    private static final char[] ALPHABET = { 'a', 'b', ' ', '\n', '"', '\'', '\\' };
+
+    /**
+     * A reader that returns at most a few characters from each read, so arguments
+     * are split across every possible refill of the buffer.
+     */
+    private static final class TrickleReader extends Reader {
+        private final String input;
+        private final Random random;
+        private int position;
+
+        private TrickleReader(String input, Random random) {
+            this.input = input;
+            this.random = random;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == input.length()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(length, 1 + random.nextInt(3)), input.length() - position);
+            input.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static String[] readAll(ArgumentStream stream) throws IOException {
+        List<String> arguments = new ArrayList<>();
+        while (stream.hasNext()) {
+            arguments.add(stream.next());
+        }
+        return arguments.toArray(new String[0]);
+    }
+
+    /**
+     * @return the length of the longest argument of {@code input}, including its
+     *         quotation marks and backslashes
+     */
+    private static int longestArgument(String input) {
+        int[] token = new int[3];
+        int longest = 0;
+        int i = 0;
+        while ((i = ArgumentLexer.next(input, i, input.length(), token)) != -1) {
+            longest = Math.max(longest, token[1] - token[0]);
+        }
+        return longest;
+    }
+
+    @Test
+    public void matchesSplitOnRandomInputs() throws IOException {
+        Random random = new Random(45);
+        for (int i = 0; i < 50_000; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                input.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+            String text = input.toString();
+            String[] expected = Command.splitUserInput(text);
+            // The tightest buffer that holds every argument
+            int maxArgumentLength = Math.max(1, longestArgument(text));
+
+            ArgumentStream stream = new ArgumentStream(new TrickleReader(text, random), maxArgumentLength);
+            assertArrayEquals(text, expected, readAll(stream));
+
+            stream = new ArgumentStream(new StringReader(text), maxArgumentLength);
+            for (int j = 0; j < expected.length; j++) {
+                assertTrue(text, j % 2 == 0 ? stream.skip() : expected[j].equals(stream.next()));
+            }
+            assertFalse(text, stream.skip());
+        }
+    }
+
+    @Test
+    public void rejectsArgumentLongerThanGreatestLength() throws IOException {
+        Random random = new Random(46);
+        for (int i = 0; i < 10_000; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = 1 + random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                input.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+            String text = input.toString();
+            int longest = longestArgument(text);
+            if (longest < 2) {
+                continue;
+            }
+            try (ArgumentStream stream = new ArgumentStream(new TrickleReader(text, random), longest - 1)) {
+                readAll(stream);
+                fail(text);
+            } catch (IOException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void growsBufferForLongArguments() throws IOException {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            word.append((char) ('a' + i % 26));
+        }
+        String text = "first \"" + word + " x\" last";
+        ArgumentStream stream = new ArgumentStream(new TrickleReader(text, new Random(47)));
+        assertArrayEquals(new String[] { "first", word + " x", "last" }, readAll(stream));
+    }
+
+    @Test
+    public void readsEmptyStream() throws IOException {
+        ArgumentStream stream = new ArgumentStream(new StringReader(" \n "), 4);
+        assertFalse(stream.hasNext());
+        assertFalse(stream.skip());
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.raybipse.components;
+
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Proxy;
+
+import org.junit.Test;
+
+import com.github.raybipse.core.BotConfiguration;
+
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+
+/**
+ * Tests how {@link Command#authorize(MessageReceivedEvent)} decides for authors
+ * who are not members of a guild.
+ *
+ * @author RayBipse
+ */
+public class CommandAuthorizationTest {
+
+    private static class Ping extends Command {
+        @Override
+        public String getName() {
+            return "Ping";
+        }
+
+        @Override
+        public String getPrefix() {
+            return "ping";
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public String[] getExamples() {
+            return null;
+        }
+
+        @Override
+        public String getSyntax() {
+            return "";
+        }
+
+        @Override
+        public CommandGroup getParent() {
+            return null;
+        }
+    }
+
+    private static final class ModeratorPing extends Ping {
+        @Override
+        public String getPrefix() {
+            return "modping";
+        }
+
+        @Override
+        protected boolean checkUserRolePermission(Member member) {
+            return !member.getRoles().isEmpty();
+        }
+    }
+
+    /**
+     * @return the event of a message sent in a private channel
+     */
+    private static MessageReceivedEvent privateMessage() {
+        Message message = (Message) Proxy.newProxyInstance(Message.class.getClassLoader(),
+                new Class<?>[] { Message.class }, (proxy, method, args) -> {
+                    return method.getReturnType() == long.class ? 0L : null;
+                });
+        return new MessageReceivedEvent(BotConfiguration.getJDA(), 0, message) {
+            @Override
+            public Member getMember() {
+                return null;
+            }
+        };
+    }
+
+    @Test
+    public void allowsPrivateMessagesWithoutRoles() {
+        TestJda.install();
+        Ping ping = new Ping();
+        try {
+            assertSame(AuthorizationResult.ALLOWED, ping.authorize(privateMessage()));
+        } finally {
+            CommandDispatcher.getInstance().unregister(ping);
+        }
+    }
+
+    @Test
+    public void deniesPrivateMessagesIfRoleCheckIsOverridden() {
+        TestJda.install();
+        ModeratorPing ping = new ModeratorPing();
+        try {
+            assertSame(AuthorizationResult.NOT_A_MEMBER, ping.authorize(privateMessage()));
+        } finally {
+            CommandDispatcher.getInstance().unregister(ping);
+        }
+    }
+}
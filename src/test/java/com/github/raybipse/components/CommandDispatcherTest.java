@@ -0,0 +1,40 @@
+package com.github.raybipse.components;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.dv8tion.jda.api.events.guild.member.GuildMemberLeaveEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+
+/**
+ * Tests which commands the {@link CommandDispatcher} still registers to JDA.
+ *
+ * @author RayBipse
+ */
+public class CommandDispatcherTest {
+
+    private abstract static class MessageCommand extends Command {
+        @Override
+        public void onMessageReceived(MessageReceivedEvent event) {
+        }
+    }
+
+    private abstract static class LeaveCommand extends MessageCommand {
+        @Override
+        public void onGuildMemberLeave(GuildMemberLeaveEvent event) {
+        }
+    }
+
+    private abstract static class InheritedLeaveCommand extends LeaveCommand {
+    }
+
+    @Test
+    public void registersCommandsListeningToOtherEvents() {
+        assertFalse(CommandDispatcher.listensToOtherEvents(MessageCommand.class));
+        assertFalse(CommandDispatcher.listensToOtherEvents(CommandGroup.Help.class));
+        assertTrue(CommandDispatcher.listensToOtherEvents(LeaveCommand.class));
+        assertTrue(CommandDispatcher.listensToOtherEvents(InheritedLeaveCommand.class));
+    }
+}
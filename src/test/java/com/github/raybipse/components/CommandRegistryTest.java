@@ -0,0 +1,116 @@
+package com.github.raybipse.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Tests that a command whose invocations collide is left out of the
+ * {@link CommandRegistry} without affecting the other commands.
+ *
+ * @author RayBipse
+ */
+public class CommandRegistryTest {
+
+    private abstract static class TestCommand extends Command {
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public String[] getExamples() {
+            return null;
+        }
+
+        @Override
+        public String getSyntax() {
+            return "";
+        }
+
+        @Override
+        public CommandGroup getParent() {
+            return null;
+        }
+    }
+
+    private static final class Ping extends TestCommand {
+        @Override
+        public String getName() {
+            return "Ping";
+        }
+
+        @Override
+        public String getPrefix() {
+            return "ping";
+        }
+
+        @Override
+        public String[] getAliases() {
+            return new String[] { "p" };
+        }
+    }
+
+    private static final class Purge extends TestCommand {
+        @Override
+        public String getName() {
+            return "Purge";
+        }
+
+        @Override
+        public String getPrefix() {
+            return "purge";
+        }
+
+        @Override
+        public String[] getAliases() {
+            return new String[] { "p" };
+        }
+    }
+
+    @Test
+    public void leavesOutCollidingCommand() {
+        TestJda.install();
+        Ping ping = new Ping();
+        Purge purge = new Purge();
+        CommandDispatcher dispatcher = CommandDispatcher.getInstance();
+        try {
+            CommandRegistry registry = dispatcher.getRegistry();
+            assertSame(registry, dispatcher.getRegistry());
+            assertTrue(registry.getCommands().contains(ping));
+            assertFalse(registry.getCommands().contains(purge));
+            assertEquals(1, registry.getErrors().size());
+            assertNull(registry.getInvocationPrefix(purge));
+
+            CommandTrie.Node match = registry.getTrie().find("&ping", 1);
+            assertNotNull(match);
+            assertSame(ping, match.getCommand());
+            assertSame(ping, registry.getTrie().find("&p", 1).getCommand());
+            assertNull(registry.getTrie().find("&purge", 1));
+
+            // The command registered first keeps the invocation
+            CommandRegistry reversed = new CommandRegistry("&", Arrays.asList(purge, ping));
+            assertEquals(Arrays.asList(purge), reversed.getCommands());
+            assertEquals("&purge", reversed.getInvocationPrefix(purge));
+
+            try {
+                dispatcher.checkRegistry();
+                fail();
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        } finally {
+            dispatcher.unregister(ping);
+            dispatcher.unregister(purge);
+        }
+        dispatcher.checkRegistry();
+    }
+}
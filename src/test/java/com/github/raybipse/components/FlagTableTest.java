@@ -0,0 +1,150 @@
+package com.github.raybipse.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the perfect hash of {@link FlagTable} and the flags it reads from an
+ * input.
+ *
+ * @author RayBipse
+ */
+public class FlagTableTest {
+
+    private static final FlagTable TABLE = FlagTable.compile(new Flag[] { new Flag("limit", 'l', true),
+            new Flag("verbose", 'v', false), new Flag("quiet", 'q', false), new Flag("reason", (char) 0, true) });
+
+    private static ParsedFlags parse(String input) {
+        return TABLE.parse(input, 0, input.length());
+    }
+
+    @Test
+    public void findsEveryNameOfFullTables() {
+        Random random = new Random(90);
+        for (int round = 0; round < 200; round++) {
+            Flag[] flags = new Flag[1 + random.nextInt(FlagTable.MAX_FLAGS)];
+            for (int i = 0; i < flags.length; i++) {
+                flags[i] = new Flag("f" + i + "-" + Integer.toString(random.nextInt(), 36), (char) 0, false);
+            }
+            FlagTable table = FlagTable.compile(flags);
+            assertEquals(flags.length, table.size());
+            for (int i = 0; i < flags.length; i++) {
+                String name = "--" + flags[i].getName() + "=";
+                assertEquals(i, table.find(name, 2, name.length() - 1));
+                assertEquals(flags[i], table.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void doesNotFindUndeclaredNames() {
+        assertEquals(-1, TABLE.find("limits", 0, 6));
+        assertEquals(-1, TABLE.find("limi", 0, 4));
+        assertEquals(-1, TABLE.find("LIMIT", 0, 5));
+        assertEquals(-1, TABLE.find("", 0, 0));
+        assertEquals(-1, FlagTable.EMPTY.find("limit", 0, 5));
+
+        Random random = new Random(91);
+        for (int i = 0; i < 100_000; i++) {
+            String name = Long.toString(random.nextLong() & Long.MAX_VALUE, 36);
+            assertEquals(name, -1, TABLE.find(name, 0, name.length()));
+        }
+    }
+
+    @Test
+    public void findsShortNames() {
+        assertEquals(0, TABLE.findShort('l'));
+        assertEquals(1, TABLE.findShort('v'));
+        assertEquals(-1, TABLE.findShort('x'));
+        assertEquals(-1, TABLE.findShort('\u00e9'));
+    }
+
+    @Test
+    public void rejectsInvalidDeclarations() {
+        Flag[] tooMany = new Flag[FlagTable.MAX_FLAGS + 1];
+        for (int i = 0; i < tooMany.length; i++) {
+            tooMany[i] = new Flag("f" + i, (char) 0, false);
+        }
+        Flag[][] invalid = { tooMany, { new Flag("a", 'x', false), new Flag("b", 'x', false) },
+                { new Flag("a", (char) 0, false), new Flag("a", (char) 0, true) }, { null } };
+        for (Flag[] flags : invalid) {
+            try {
+                FlagTable.compile(flags);
+                fail();
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void parsesLongNames() {
+        ParsedFlags flags = parse("a --limit=50 --verbose b --reason \"too loud\"");
+        assertEquals("50", flags.getString("limit"));
+        assertTrue(flags.has("verbose"));
+        assertFalse(flags.has("quiet"));
+        assertEquals("too loud", flags.getString("reason"));
+        assertFalse(flags.hasErrors());
+    }
+
+    @Test
+    public void parsesShortNames() {
+        ParsedFlags flags = parse("-vq -l50");
+        assertTrue(flags.has("verbose"));
+        assertTrue(flags.has("quiet"));
+        assertEquals("50", flags.getString("limit"));
+
+        flags = parse("-vl 20");
+        assertTrue(flags.has("verbose"));
+        assertEquals("20", flags.getString("limit"));
+        assertFalse(flags.hasErrors());
+    }
+
+    @Test
+    public void stopsAtTerminator() {
+        ParsedFlags flags = parse("-v -- --quiet -l5");
+        assertTrue(flags.has("verbose"));
+        assertFalse(flags.has("quiet"));
+        assertNull(flags.getString("limit"));
+    }
+
+    @Test
+    public void ignoresUndeclaredFlags() {
+        ParsedFlags flags = parse("-5 --unknown -vx");
+        assertFalse(flags.has("verbose"));
+        assertFalse(flags.hasErrors());
+    }
+
+    @Test
+    public void reportsMissingAndUnexpectedValues() {
+        ParsedFlags flags = parse("--verbose=yes --limit");
+        List<ArgumentError> errors = flags.getErrors();
+        assertEquals(2, errors.size());
+        assertEquals(ArgumentError.Reason.INVALID, errors.get(0).getReason());
+        assertEquals(1, errors.get(0).getIndex());
+        assertEquals(ArgumentError.Reason.MISSING, errors.get(1).getReason());
+        assertEquals(0, errors.get(1).getIndex());
+        assertNull(flags.getString("limit"));
+    }
+
+    @Test
+    public void skipsFlagsWhenScanningPositionals() {
+        String input = "a -l 5 --verbose \"b c\" -- -q";
+        int[] token = new int[FlagTable.TOKEN_FIELDS];
+        int[] scratch = new int[FlagTable.TOKEN_FIELDS];
+        StringBuilder positionals = new StringBuilder();
+        int i = 0;
+        while ((i = TABLE.nextPositional(input, i, input.length(), token, scratch)) != -1) {
+            positionals.append('[').append(input, token[0], token[1]).append(']');
+        }
+        assertEquals("[a][\"b c\"][-q]", positionals.toString());
+    }
+}
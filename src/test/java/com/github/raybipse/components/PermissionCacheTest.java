@@ -0,0 +1,119 @@
+package com.github.raybipse.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.ReconnectedEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberLeaveEvent;
+
+/**
+ * Tests the events that make the {@link PermissionCache} ignore its decisions.
+ *
+ * @author RayBipse
+ */
+public class PermissionCacheTest {
+
+    private static final class Ping extends Command {
+        @Override
+        public String getName() {
+            return "Ping";
+        }
+
+        @Override
+        public String getPrefix() {
+            return "ping";
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public String[] getExamples() {
+            return null;
+        }
+
+        @Override
+        public String getSyntax() {
+            return "";
+        }
+
+        @Override
+        public CommandGroup getParent() {
+            return null;
+        }
+    }
+
+    /**
+     * @return a proxy of {@code type} answering the methods in {@code results},
+     *         and null to every other method
+     */
+    private static <T> T proxy(Class<T> type, Map<String, Object> results) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> results.get(method.getName())));
+    }
+
+    private static Member member(long guildId, long userId) {
+        Guild guild = proxy(Guild.class, Map.of("getIdLong", guildId, "getRoles", Collections.emptyList()));
+        User user = proxy(User.class, Map.of("getIdLong", userId));
+        return proxy(Member.class, Map.of("getGuild", guild, "getUser", user, "getRoles", Collections.emptyList()));
+    }
+
+    /**
+     * @return the number of checks of {@code member} that had to be decided
+     */
+    private static long misses(PermissionCache cache, Command command, Member member, int checks) {
+        long before = cache.getMissCount();
+        for (int i = 0; i < checks; i++) {
+            assertTrue(cache.check(command, member).isAllowed());
+        }
+        return cache.getMissCount() - before;
+    }
+
+    @Test
+    public void ignoresDecisionsAfterMemberLeaves() {
+        TestJda.install();
+        Ping ping = new Ping();
+        try {
+            PermissionCache cache = PermissionCache.getInstance();
+            Member member = member(1001, 2001);
+            assertEquals(1, misses(cache, ping, member, 3));
+
+            cache.onGuildMemberLeave(new GuildMemberLeaveEvent(null, 0, member));
+            assertEquals(1, misses(cache, ping, member, 3));
+        } finally {
+            CommandDispatcher.getInstance().unregister(ping);
+        }
+    }
+
+    @Test
+    public void ignoresEveryDecisionAfterReconnecting() {
+        TestJda.install();
+        Ping ping = new Ping();
+        try {
+            PermissionCache cache = PermissionCache.getInstance();
+            Member first = member(1002, 2002);
+            Member second = member(1003, 2003);
+            assertEquals(1, misses(cache, ping, first, 2));
+            assertEquals(1, misses(cache, ping, second, 2));
+
+            long invalidations = cache.getInvalidationCount();
+            cache.onReconnect(new ReconnectedEvent(null, 0));
+            assertEquals(invalidations + 1, cache.getInvalidationCount());
+            assertEquals(1, misses(cache, ping, first, 2));
+            assertEquals(1, misses(cache, ping, second, 2));
+        } finally {
+            CommandDispatcher.getInstance().unregister(ping);
+        }
+    }
+}
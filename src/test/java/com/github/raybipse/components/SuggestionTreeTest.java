@@ -0,0 +1,109 @@
+package com.github.raybipse.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the searches of {@link SuggestionTree} against comparing the text with
+ * every invocation.
+ *
+ * @author RayBipse
+ */
+public class SuggestionTreeTest {
+
+    private static final char[] ALPHABET = { 'a', 'b', 'c', 'n', 'B', ' ' };
+
+    private static Map<String, Command> invocations(String... invocations) {
+        Map<String, Command> map = new LinkedHashMap<>();
+        for (String invocation : invocations) {
+            map.put(invocation, null);
+        }
+        return map;
+    }
+
+    private static Map<String, Integer> search(SuggestionTree tree, String text, int maxDistance) {
+        Map<String, Integer> found = new HashMap<>();
+        tree.search(text, maxDistance, found);
+        return found;
+    }
+
+    @Test
+    public void findsCloseInvocations() {
+        SuggestionTree tree = new SuggestionTree(invocations("help", "ban", "mod ban", "mod kick", "say"));
+        Map<String, Integer> found = search(tree, "hlep", 2);
+        assertEquals(1, found.size());
+        assertEquals(Integer.valueOf(2), found.get("help"));
+
+        found = search(tree, "MOD BNA", 2);
+        assertEquals(Integer.valueOf(2), found.get("mod ban"));
+        assertFalse(found.containsKey("mod kick"));
+        assertEquals(2, tree.getMaxWords());
+    }
+
+    @Test
+    public void searchesEmptyTree() {
+        SuggestionTree tree = new SuggestionTree(invocations());
+        assertTrue(search(tree, "help", 2).isEmpty());
+        assertEquals(0, tree.getMaxWords());
+    }
+
+    @Test
+    public void matchesEveryInvocationComparedOnRandomTrees() {
+        Random random = new Random(23);
+        for (int round = 0; round < 300; round++) {
+            Map<String, Command> invocations = new LinkedHashMap<>();
+            int size = 1 + random.nextInt(60);
+            while (invocations.size() < size) {
+                invocations.put(randomText(random, 1 + random.nextInt(8)), null);
+            }
+            SuggestionTree tree = new SuggestionTree(invocations);
+            for (int query = 0; query < 50; query++) {
+                String text = randomText(random, random.nextInt(9));
+                int maxDistance = random.nextInt(4);
+                Map<String, Integer> expected = new HashMap<>();
+                for (String invocation : invocations.keySet()) {
+                    int distance = levenshtein(CommandGroup.foldCase(text), CommandGroup.foldCase(invocation));
+                    if (distance <= maxDistance) {
+                        expected.put(invocation, distance);
+                    }
+                }
+                assertEquals(text, expected, search(tree, text, maxDistance));
+            }
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return the Levenshtein distance between {@code a} and {@code b}, from the
+     *         full table of distances between their prefixes
+     */
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    d[i][j] = i + j;
+                } else {
+                    int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    d[i][j] = Math.min(Math.min(d[i - 1][j], d[i][j - 1]) + 1, d[i - 1][j - 1] + cost);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
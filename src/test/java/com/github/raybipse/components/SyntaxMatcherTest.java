@@ -0,0 +1,109 @@
+package com.github.raybipse.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the number of arguments {@link SyntaxMatcher} accepts for each form of
+ * syntax documented on it.
+ *
+ * @author RayBipse
+ */
+public class SyntaxMatcherTest {
+
+    private static final int MOST_ARGUMENTS = 12;
+
+    private static int match(String syntax, String input, boolean checkMax) {
+        return SyntaxMatcher.compile(syntax).match(input, 0, input.length(), FlagTable.EMPTY, checkMax);
+    }
+
+    /**
+     * @return the numbers of arguments {@code syntax} accepts, such as "1..2", or
+     *         "1..*" if there is no limit
+     */
+    private static String range(String syntax) {
+        SyntaxMatcher matcher = SyntaxMatcher.compile(syntax);
+        int min = -1;
+        int max = -1;
+        StringBuilder input = new StringBuilder();
+        for (int count = 0; count <= MOST_ARGUMENTS; count++) {
+            int result = matcher.match(input, 0, input.length(), FlagTable.EMPTY, true);
+            if (result == SyntaxMatcher.MATCHED) {
+                min = min == -1 ? count : min;
+                max = count;
+            } else if (result == SyntaxMatcher.TOO_MANY) {
+                assertTrue(syntax, min != -1 && count > max);
+            } else {
+                assertEquals(syntax, -1, min);
+            }
+            input.append(" arg");
+        }
+        return min + ".." + (max == MOST_ARGUMENTS ? "*" : Integer.toString(max));
+    }
+
+    @Test
+    public void countsRequiredAndOptionalArguments() {
+        assertEquals("0..0", range(""));
+        assertEquals("1..1", range("<user>"));
+        assertEquals("2..2", range("<user>   <reason>"));
+        assertEquals("0..1", range("[reason]"));
+        assertEquals("1..3", range("<user> [days] [reason]"));
+        assertEquals("1..1", range("<the user>"));
+    }
+
+    @Test
+    public void countsNestedBrackets() {
+        assertEquals("0..2", range("[<user> [reason]]"));
+        assertEquals("0..2", range("[[a] [b]]"));
+        assertEquals("1..4", range("<a> [<b> [<c> [d]]]"));
+        assertEquals("0..*", range("[<a> [b...]]"));
+    }
+
+    @Test
+    public void repeatsElementsFollowedByEllipsis() {
+        assertEquals("0..*", range("[reason...]"));
+        assertEquals("1..*", range("<user...>"));
+        assertEquals("1..*", range("<user>..."));
+        assertEquals("0..*", range("[<a> <b>]..."));
+        assertEquals("2..*", range("<a> <b>... [c]"));
+    }
+
+    @Test
+    public void acceptsAnythingIfSyntaxCannotBeCompiled() {
+        String[] invalid = { "ban <user>", "<user", "user>", "<user]", "[<user>", "<a <b>>", "...<a>", "<a> ]",
+                "[a] ...[b]" };
+        for (String syntax : invalid) {
+            assertSame(syntax, SyntaxMatcher.UNCONSTRAINED, SyntaxMatcher.compile(syntax));
+            assertEquals(syntax, "0..*", range(syntax));
+        }
+    }
+
+    @Test
+    public void allowsExtraArgumentsUnlessMaxIsChecked() {
+        assertEquals(SyntaxMatcher.MATCHED, match("<user> <reason>", "@x being very rude", false));
+        assertEquals(SyntaxMatcher.TOO_MANY, match("<user> <reason>", "@x being very rude", true));
+        assertEquals(SyntaxMatcher.TOO_FEW, match("<user> <reason>", "@x", false));
+    }
+
+    @Test
+    public void countsQuotedArgumentsOnce() {
+        assertEquals(SyntaxMatcher.MATCHED, match("<user> <reason>", "@x \"being very rude\"", true));
+        assertEquals(SyntaxMatcher.MATCHED, match("<a>", " 'b c'  ", true));
+    }
+
+    @Test
+    public void doesNotCountFlags() {
+        FlagTable flags = FlagTable.compile(new Flag[] { new Flag("silent", 's', false),
+                new Flag("days", 'd', true) });
+        SyntaxMatcher matcher = SyntaxMatcher.compile("<user>");
+        String input = "-s @x --days 7";
+        assertEquals(SyntaxMatcher.MATCHED, matcher.match(input, 0, input.length(), flags, true));
+        input = "-s -- -d";
+        assertEquals(SyntaxMatcher.MATCHED, matcher.match(input, 0, input.length(), flags, true));
+        input = "--days 7";
+        assertEquals(SyntaxMatcher.TOO_FEW, matcher.match(input, 0, input.length(), flags, true));
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.raybipse.components;
+
+import java.lang.reflect.Proxy;
+
+import com.github.raybipse.core.BotConfiguration;
+
+import net.dv8tion.jda.api.JDA;
+
+/**
+ * Sets a {@link JDA} that ignores every call, so commands can be constructed
+ * and registered without connecting to Discord.
+ *
+ * @author RayBipse
+ */
+final class TestJda {
+
+    private static final JDA jda = (JDA) Proxy.newProxyInstance(TestJda.class.getClassLoader(),
+            new Class<?>[] { JDA.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "TestJda";
+                default:
+                    return defaultValue(method.getReturnType());
+                }
+            });
+
+    private TestJda() {
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        return null;
+    }
+
+    /**
+     * Sets the JDA of {@link BotConfiguration} to one that ignores every call.
+     */
+    static void install() {
+        BotConfiguration.setJDA(jda);
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.raybipse.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ConcurrentLongMap} against a {@link HashMap}, and its reads while
+ * it is written.
+ *
+ * @author RayBipse
+ */
+public class ConcurrentLongMapTest {
+
+    @Test
+    public void putsGetsAndRemoves() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        assertNull(map.put(1, "a"));
+        assertNull(map.put(Long.MIN_VALUE, "b"));
+        assertNull(map.put(0, "c"));
+        assertEquals("a", map.put(1, "d"));
+        assertEquals("d", map.get(1));
+        assertEquals("b", map.get(Long.MIN_VALUE));
+        assertEquals("c", map.get(0));
+        assertNull(map.get(2));
+        assertEquals(3, map.size());
+
+        assertEquals("d", map.remove(1));
+        assertNull(map.remove(1));
+        assertNull(map.get(1));
+        assertEquals(2, map.size());
+
+        map.clear();
+        assertNull(map.get(0));
+        assertEquals(0, map.size());
+        assertEquals(0, map.keys().length);
+    }
+
+    @Test
+    public void matchesHashMapOnRandomOperations() {
+        Random random = new Random(61);
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 500_000; i++) {
+            // Few keys, so removed slots are reused and the table is rehashed without growing
+            long key = random.nextInt(1 << (4 + i / 100_000)) * 0x100000000L;
+            long value = random.nextLong();
+            switch (random.nextInt(3)) {
+            case 0:
+                assertEquals(expected.put(key, value), map.put(key, value));
+                break;
+            case 1:
+                assertEquals(expected.remove(key), map.remove(key));
+                break;
+            default:
+                assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        long[] expectedKeys = expected.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        assertArrayEquals(expectedKeys, keys);
+    }
+
+    @Test
+    public void putsManyKeys() {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        for (long key = 0; key < 200_000; key++) {
+            map.put(key * 31, key);
+        }
+        assertEquals(200_000, map.size());
+        for (long key = 0; key < 200_000; key++) {
+            assertEquals(Long.valueOf(key), map.get(key * 31));
+        }
+    }
+
+    @Test
+    public void readsWhileWritten() throws InterruptedException {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        int keys = 1 << 12;
+        for (long key = 0; key < keys; key += 2) {
+            // Even keys are never removed, so every read of them must find them
+            map.put(key, -key);
+        }
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            Random random = new Random(62);
+            for (int i = 0; i < 1_000_000; i++) {
+                long key = random.nextInt(keys) | 1;
+                if (random.nextBoolean()) {
+                    map.put(key, -key);
+                } else {
+                    map.remove(key);
+                }
+            }
+        });
+        Thread reader = new Thread(() -> {
+            try {
+                Random random = new Random(63);
+                while (writer.isAlive()) {
+                    long key = random.nextInt(keys);
+                    Long value = map.get(key);
+                    if ((key & 1) == 0) {
+                        assertEquals(Long.valueOf(-key), value);
+                    } else {
+                        assertTrue(value == null || value == -key);
+                    }
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+        assertNull(failure.get());
+    }
+}